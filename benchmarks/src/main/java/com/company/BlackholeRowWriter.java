@@ -0,0 +1,84 @@
+package com.company;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Consumes the values without formatting them, so only the generation itself is measured
+ * */
+public class BlackholeRowWriter extends RowWriter {
+    private final Blackhole blackhole;
+    private long rows = 0;
+
+    public BlackholeRowWriter(Blackhole blackhole) {
+        this.blackhole = blackhole;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public RowWriter begin(String table, String columns) {
+        blackhole.consume(table);
+        blackhole.consume(columns);
+        return this;
+    }
+
+    @Override
+    public RowWriter value(int value) {
+        blackhole.consume(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter value(boolean value) {
+        blackhole.consume(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter value(double value) {
+        blackhole.consume(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter text(String value) {
+        blackhole.consume(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter text(String first, String second, String third) {
+        blackhole.consume(first);
+        blackhole.consume(second);
+        blackhole.consume(third);
+        return this;
+    }
+
+    @Override
+    public RowWriter date(long epochDay) {
+        blackhole.consume(epochDay);
+        return this;
+    }
+
+    @Override
+    public void end() {
+        rows++;
+    }
+
+    @Override
+    public void restartSequence(String table, String column, int lastValue) {
+        blackhole.consume(lastValue);
+    }
+
+    @Override
+    public void update(String table, String assignments, String condition) {
+        blackhole.consume(assignments);
+        blackhole.consume(condition);
+    }
+
+    @Override
+    public void finish() {
+    }
+}
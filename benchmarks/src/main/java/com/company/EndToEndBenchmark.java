@@ -0,0 +1,115 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The whole dataset formatted into a writer that drops the text, the rows counter gives rows per second of every format.
+ * With threads > 0 the dataset is written by ParallelGenerator into the files of a temporary directory instead,
+ * e.g. -p threads=1,8,32 -p chunkRows=10000 for the scaling with the cores
+ * */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class EndToEndBenchmark {
+    @Param({"INSERT", "BATCH", "COPY", "CSV"})
+    public OutputFormat format;
+
+    @Param("1")
+    public double scale;
+
+    /**
+     * Distributions spec of the layout, e.g. -p distribution=soul.handler_id=zipf:1.2
+     * */
+    @Param("")
+    public String distribution;
+
+    @Param("1000")
+    public int batchSize;
+
+    /**
+     * 0 to format on the benchmark thread without files
+     * */
+    @Param("0")
+    public int threads;
+
+    /**
+     * Rows per chunk, the parallel generation needs several chunks per table to use the threads
+     * */
+    @Param("100000")
+    public int chunkRows;
+
+    private Path directory;
+    private Layout layout;
+    private Randomizer randomizer;
+    private long rowsPerDataset;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Rows {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+
+    @Setup
+    public void setUp(Blackhole blackhole) throws IOException {
+        randomizer = new Randomizer(42);
+        layout = new Layout(scale, chunkRows, randomizer, distribution);
+        BlackholeRowWriter counter = new BlackholeRowWriter(blackhole);
+        new Generator(counter, layout, randomizer).generate();
+        rowsPerDataset = counter.getRows();
+        directory = Files.createTempDirectory("end-to-end");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void generate(Rows rows) throws IOException {
+        if (threads > 0) {
+            ScriptOutput output = new ScriptOutput(format, batchSize, Compression.NONE, ScriptOutput.DEFAULT_BUFFER_SIZE, 0);
+            new ParallelGenerator(layout, randomizer, directory, threads, output, Collections.emptySet(), false).generate();
+        } else {
+            RowWriter writer = format.create(Writer.nullWriter(), batchSize);
+            new Generator(writer, layout, randomizer).generate();
+            writer.finish();
+        }
+
+        rows.rows += rowsPerDataset;
+    }
+}
@@ -0,0 +1,58 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of generating every table at the given scale factor, the rows are consumed by BlackholeRowWriter
+ * */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+    @Param("1")
+    public double scale;
+
+    /**
+     * Distributions spec of the layout, e.g. -p distribution=soul.handler_id=zipf:1.2
+     * */
+    @Param("")
+    public String distribution;
+
+    /**
+     * Table of the schema, all of them by default
+     * */
+    @Param({"person", "_user", "_level", "_location", "monster", "torture", "soul", "sin_type", "_status",
+            "complaint", "_event", "work", "sin_type_distribution_list", "work_list"})
+    public String table;
+
+    private Generator generator;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        Randomizer randomizer = new Randomizer(42);
+        Layout layout = new Layout(scale, Layout.DEFAULT_CHUNK_ROWS, randomizer, distribution);
+        generator = new Generator(new BlackholeRowWriter(blackhole), layout, randomizer);
+    }
+
+    @Benchmark
+    public void generate() throws IOException {
+        generator.generate(table);
+    }
+}
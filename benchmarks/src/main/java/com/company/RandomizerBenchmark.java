@@ -0,0 +1,60 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RandomizerBenchmark {
+    private Randomizer randomizer;
+    private LocalDate date;
+
+    @Setup
+    public void setUp() {
+        randomizer = new Randomizer(42);
+        date = LocalDate.of(1953, 6, 15);
+    }
+
+    @Benchmark
+    public int getNumber() {
+        return randomizer.getNumber(1, 100);
+    }
+
+    /**
+     * The String based date the generator used before dates were written as epoch days
+     * */
+    @Benchmark
+    public String getDate() {
+        return randomizer.getDate("1953-01-01", "1973-01-01");
+    }
+
+    @Benchmark
+    public long getEpochDay() {
+        return randomizer.getEpochDay(-6209, 1096);
+    }
+
+    @Benchmark
+    public String formatDate() {
+        return Randomizer.formatDate(date);
+    }
+
+    @Benchmark
+    public Randomizer fork() {
+        return randomizer.fork("soul", 7);
+    }
+}
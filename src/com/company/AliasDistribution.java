@@ -0,0 +1,110 @@
+package com.company;
+
+/**
+ * Any weights over from .. to through the alias method (Vose): a value takes one uniform index and one coin toss.
+ * The tables take 12 bytes per value of the range and are built once, 4 more bytes per value while they are built
+ * */
+public class AliasDistribution extends Distribution {
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    /**
+     * weights are the weights of the ranks, see Distribution.value. The array is taken over as the table of probabilities
+     * */
+    public AliasDistribution(int from, double[] weights) {
+        super(from, from + weights.length - 1);
+        int count = weights.length;
+        double total = 0;
+
+        for (double weight : weights) {
+            if (!(weight >= 0)) {
+                throw new IllegalArgumentException("Weights must not be negative: " + weight);
+            }
+
+            total += weight;
+        }
+
+        probabilities = weights;
+        aliases = new int[count];
+        // The small ones are stacked from the start of the array and the large ones from the end, they never overlap
+        int[] stacks = new int[count];
+        int smallCount = 0;
+        int largeStart = count;
+
+        for (int i = 0; i < count; i++) {
+            probabilities[i] = weights[i] * count / total;
+
+            if (probabilities[i] < 1) {
+                stacks[smallCount++] = i;
+            } else {
+                stacks[--largeStart] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeStart < count) {
+            int less = stacks[--smallCount];
+            int more = stacks[largeStart++];
+            aliases[less] = more;
+            probabilities[more] = probabilities[more] + probabilities[less] - 1;
+
+            if (probabilities[more] < 1) {
+                stacks[smallCount++] = more;
+            } else {
+                stacks[--largeStart] = more;
+            }
+        }
+
+        // What is left is 1 up to rounding errors
+        while (largeStart < count) {
+            probabilities[stacks[largeStart++]] = 1;
+        }
+
+        while (smallCount > 0) {
+            probabilities[stacks[--smallCount]] = 1;
+        }
+    }
+
+    /**
+     * The k-th rank is drawn with weight 1 / k^exponent, so the first ranks are the hot ones
+     * */
+    public static AliasDistribution zipf(int from, int to, double exponent) {
+        if (!(exponent >= 0)) {
+            throw new IllegalArgumentException("Zipf exponent must not be negative: " + exponent);
+        }
+
+        double[] weights = new double[to - from + 1];
+
+        for (int k = 1; k <= weights.length; k++) {
+            weights[k - 1] = Math.pow(k, -exponent);
+        }
+
+        return new AliasDistribution(from, weights);
+    }
+
+    /**
+     * Normal distribution centered in the middle of the range and cut by its ends,
+     * the standard deviation is the given part of the range
+     * */
+    public static AliasDistribution normal(int from, int to, double deviationPart) {
+        if (!(deviationPart > 0)) {
+            throw new IllegalArgumentException("Deviation must be positive: " + deviationPart);
+        }
+
+        double[] weights = new double[to - from + 1];
+        double middle = (weights.length - 1) / 2.0;
+        double deviation = Math.max(deviationPart * weights.length, Double.MIN_NORMAL);
+
+        for (int i = 0; i < weights.length; i++) {
+            double z = (i - middle) / deviation;
+            weights[i] = Math.exp(-z * z / 2);
+        }
+
+        return new AliasDistribution(from, weights);
+    }
+
+    @Override
+    public int next(Randomizer random) {
+        int i = random.getIndex(probabilities.length);
+        return value(random.getDouble() < probabilities[i] ? i : aliases[i]);
+    }
+}
@@ -0,0 +1,53 @@
+package com.company;
+
+import java.io.Writer;
+
+/**
+ * INSERT INTO ... VALUES (...), (...), ...; with up to batchSize rows per statement.
+ * A statement is closed earlier when the table or the column list changes
+ * */
+public class BatchInsertRowWriter extends InsertRowWriter {
+    private final int batchSize;
+    private String table;
+    private String columns;
+    private int rowsInBatch = 0;
+
+    public BatchInsertRowWriter(Writer writer, int batchSize) {
+        super(writer);
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    protected void beginRow(String table, String columns) {
+        if (rowsInBatch == batchSize || (rowsInBatch > 0 && !(table.equals(this.table) && columns.equals(this.columns)))) {
+            finishStatement();
+        }
+
+        if (rowsInBatch == 0) {
+            row.append("INSERT INTO ").append(table).append(" (").append(columns).append(") VALUES\n(");
+            this.table = table;
+            this.columns = columns;
+        } else {
+            row.append(",\n(");
+        }
+    }
+
+    @Override
+    protected void endRow() {
+        row.append(')');
+        rowsInBatch++;
+    }
+
+    @Override
+    protected void finishStatement() {
+        if (rowsInBatch > 0) {
+            row.append(";\n");
+            rowsInBatch = 0;
+        }
+    }
+}
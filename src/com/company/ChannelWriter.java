@@ -0,0 +1,144 @@
+package com.company;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes the text as UTF-8 into a byte buffer, preferably a large direct one, and writes it to the channel
+ * when the buffer is full, so a script is written in a few large writes whatever the default charset is.
+ * Counts the encoded bytes to let the output be split by size
+ * */
+public class ChannelWriter extends Writer {
+    private static final int CHAR_BUFFER_SIZE = 8192;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer bytes;
+    private final CharBuffer chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private long bytesWritten = 0;
+    private boolean closed = false;
+
+    /**
+     * The buffer is cleared and used until the writer is closed, it may be reused afterwards
+     * */
+    public ChannelWriter(WritableByteChannel channel, ByteBuffer buffer) {
+        this.channel = channel;
+        this.bytes = buffer;
+        buffer.clear();
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        if (!chars.hasRemaining()) {
+            encode(false);
+        }
+
+        chars.put((char) c);
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+
+            int count = Math.min(length, chars.remaining());
+            chars.put(buffer, offset, count);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+
+            int count = Math.min(length, chars.remaining());
+            chars.put(text, offset, offset + count);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Bytes of UTF-8 written so far, including the ones still in the buffer
+     * */
+    public long getBytesWritten() throws IOException {
+        encode(false);
+        return bytesWritten + bytes.position();
+    }
+
+    /**
+     * getBytesWritten() without encoding the chars waiting in the char buffer, they are counted as one byte each.
+     * Cheap enough to call after every row, short by at most two bytes per waiting char
+     * */
+    public long getApproximateBytesWritten() {
+        return bytesWritten + bytes.position() + chars.position();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        encode(false);
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        try {
+            encode(true);
+
+            while (encoder.flush(bytes).isOverflow()) {
+                drain();
+            }
+
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void encode(boolean endOfInput) throws IOException {
+        chars.flip();
+
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+
+            if (result.isOverflow()) {
+                drain();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+
+        chars.compact();
+    }
+
+    private void drain() throws IOException {
+        bytes.flip();
+        bytesWritten += bytes.remaining();
+
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+
+        bytes.clear();
+    }
+}
@@ -0,0 +1,148 @@
+package com.company;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * CHECK constraint of a table. Conjunctions of comparisons between columns, numbers and dates like
+ * "date_of_death < '2022-01-01' AND birth_date < date_of_death" are understood and verified against the ranges
+ * of the generated values before anything is written; other expressions are left to the database
+ * */
+public class Check {
+    private static final Pattern AND = Pattern.compile("(?i)\\s+AND\\s+");
+    private static final Pattern COMPARISON = Pattern.compile("(.+?)\\s*(<=|>=|<>|!=|=|<|>)\\s*(.+)");
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_]\\w*");
+
+    private final String expression;
+    private final List<Comparison> comparisons = new ArrayList<>();
+    private final boolean understood;
+
+    Check(String expression) {
+        this.expression = expression.trim();
+        boolean understood = true;
+
+        for (String part : AND.split(strip(this.expression))) {
+            Matcher matcher = COMPARISON.matcher(strip(part));
+            Operand left = matcher.matches() ? Operand.parse(matcher.group(1)) : null;
+            Operand right = matcher.matches() ? Operand.parse(matcher.group(3)) : null;
+
+            if (left == null || right == null) {
+                understood = false;
+                break;
+            }
+
+            comparisons.add(new Comparison(left, matcher.group(2), right));
+        }
+
+        this.understood = understood;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /**
+     * Whether every value within the ranges satisfies the constraint. ranges maps a column to its minimum and maximum,
+     * a comparison with a column missing there, or the whole check if it is not understood, is taken as satisfied
+     * */
+    public boolean holds(Map<String, double[]> ranges) {
+        if (!understood) {
+            return true;
+        }
+
+        for (Comparison comparison : comparisons) {
+            double[] left = comparison.left.getRange(ranges);
+            double[] right = comparison.right.getRange(ranges);
+
+            if (left != null && right != null && !comparison.holds(left, right)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "CHECK (" + expression + ")";
+    }
+
+    private static String strip(String expression) {
+        String stripped = expression.trim();
+
+        while (stripped.startsWith("(") && stripped.endsWith(")")) {
+            stripped = stripped.substring(1, stripped.length() - 1).trim();
+        }
+
+        return stripped;
+    }
+
+    private static class Comparison {
+        private final Operand left;
+        private final String operator;
+        private final Operand right;
+
+        Comparison(Operand left, String operator, Operand right) {
+            this.left = left;
+            this.operator = operator;
+            this.right = right;
+        }
+
+        boolean holds(double[] left, double[] right) {
+            switch (operator) {
+                case "<":
+                    return left[1] < right[0];
+                case "<=":
+                    return left[1] <= right[0];
+                case ">":
+                    return left[0] > right[1];
+                case ">=":
+                    return left[0] >= right[1];
+                case "=":
+                    return left[0] == left[1] && right[0] == right[1] && left[0] == right[0];
+                default:
+                    return left[1] < right[0] || left[0] > right[1];
+            }
+        }
+    }
+
+    /**
+     * A column or a constant, dates are compared as epoch days
+     * */
+    private static class Operand {
+        private final String column;
+        private final double value;
+
+        private Operand(String column, double value) {
+            this.column = column;
+            this.value = value;
+        }
+
+        static Operand parse(String text) {
+            text = text.trim();
+
+            if (IDENTIFIER.matcher(text).matches()) {
+                return new Operand(text, 0);
+            }
+
+            try {
+                if (text.length() > 1 && text.startsWith("'") && text.endsWith("'")) {
+                    return new Operand(null, LocalDate.parse(text.substring(1, text.length() - 1)).toEpochDay());
+                }
+
+                return new Operand(null, Double.parseDouble(text));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                return null;
+            }
+        }
+
+        double[] getRange(Map<String, double[]> ranges) {
+            return column != null ? ranges.get(column) : new double[]{value, value};
+        }
+    }
+}
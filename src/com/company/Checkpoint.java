@@ -0,0 +1,107 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * checkpoint.txt of an output directory: the settings of the generation, then a line per finished chunk with its files.
+ * A chunk is recorded only after its files are closed, so on resume the chunks listed there are skipped
+ * and all the others are generated again from scratch, which gives the same files as an uninterrupted run.
+ * Runs with the same settings share the checkpoint whatever tables they generate, so it knows every chunk in the directory
+ * */
+public class Checkpoint {
+    public static final String FILE_NAME = "checkpoint.txt";
+    private static final String DONE = "done";
+
+    private final Path file;
+    private final String settings;
+    private final Map<String, List<String>> finishedChunks = new LinkedHashMap<>();
+
+    private Checkpoint(Path file, String settings) {
+        this.file = file;
+        this.settings = settings;
+    }
+
+    /**
+     * Continues the existing checkpoint written with the same settings, or starts a new one.
+     * With resume the existing checkpoint has to be written with the same settings
+     * */
+    public static Checkpoint open(Path directory, String settings, boolean resume) throws IOException {
+        Checkpoint checkpoint = new Checkpoint(directory.resolve(FILE_NAME), settings);
+        List<String> lines = Files.exists(checkpoint.file)
+                ? Files.readAllLines(checkpoint.file, StandardCharsets.UTF_8) : Collections.<String>emptyList();
+        boolean sameSettings = !lines.isEmpty() && lines.get(0).equals(settings);
+
+        if (resume && !lines.isEmpty() && !sameSettings) {
+            throw new IllegalArgumentException("Can not resume " + directory + ", it was generated with other settings: "
+                    + lines.get(0));
+        }
+
+        if (sameSettings) {
+            for (String line : lines.subList(1, lines.size())) {
+                String[] fields = line.split("\t");
+
+                // A line cut by a crash is not finished with "done", its chunk is generated again
+                if (fields.length >= 2 && fields[fields.length - 1].equals(DONE)) {
+                    checkpoint.finishedChunks.put(fields[0], Arrays.asList(fields).subList(1, fields.length - 1));
+                }
+            }
+        } else {
+            Files.write(checkpoint.file, (settings + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        return checkpoint;
+    }
+
+    /**
+     * Drops the records of chunks that are generated again, the file is replaced as a whole
+     * */
+    public synchronized void forget(Collection<String> chunks) throws IOException {
+        if (!finishedChunks.keySet().removeAll(chunks)) {
+            return;
+        }
+
+        StringBuilder text = new StringBuilder(settings).append('\n');
+
+        for (Map.Entry<String, List<String>> chunk : finishedChunks.entrySet()) {
+            text.append(toLine(chunk.getKey(), chunk.getValue()));
+        }
+
+        Path temporary = file.resolveSibling(FILE_NAME + ".tmp");
+        Files.write(temporary, text.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Files of the chunk if it was finished before, null otherwise
+     * */
+    public synchronized List<String> getFileNames(String chunk) {
+        return finishedChunks.get(chunk);
+    }
+
+    public synchronized void finish(String chunk, List<String> fileNames) throws IOException {
+        Files.write(file, toLine(chunk, fileNames).getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        finishedChunks.put(chunk, fileNames);
+    }
+
+    private static String toLine(String chunk, List<String> fileNames) {
+        StringBuilder line = new StringBuilder(chunk);
+
+        for (String fileName : fileNames) {
+            line.append('\t').append(fileName);
+        }
+
+        return line.append('\t').append(DONE).append('\n').toString();
+    }
+}
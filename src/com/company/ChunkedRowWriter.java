@@ -0,0 +1,164 @@
+package com.company;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes the rows into name.sql, or with a size limit into name-0000.sql, name-0001.sql, ...
+ * A file is closed after the row that makes it reach the limit, with its last statement finished,
+ * so every file can be loaded by itself. The limit counts bytes before compression, up to the few KB of text not encoded yet
+ * */
+public class ChunkedRowWriter extends RowWriter implements Closeable {
+    private final ScriptOutput output;
+    private final Path directory;
+    private final String name;
+    private final List<String> fileNames = new ArrayList<>();
+    private ChannelWriter writer;
+    private RowWriter rows;
+    private long closedFileBytes = 0;
+
+    ChunkedRowWriter(ScriptOutput output, Path directory, String name) {
+        this.output = output;
+        this.directory = directory;
+        this.name = name;
+    }
+
+    @Override
+    public RowWriter begin(String table, String columns) throws IOException {
+        if (rows == null) {
+            openNextFile();
+        }
+
+        rows.begin(table, columns);
+        return this;
+    }
+
+    @Override
+    public RowWriter value(int value) throws IOException {
+        rows.value(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter value(boolean value) throws IOException {
+        rows.value(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter value(double value) throws IOException {
+        rows.value(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter text(String value) throws IOException {
+        rows.text(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter text(String first, String second, String third) throws IOException {
+        rows.text(first, second, third);
+        return this;
+    }
+
+    @Override
+    public RowWriter date(long epochDay) throws IOException {
+        rows.date(epochDay);
+        return this;
+    }
+
+    @Override
+    public void end() throws IOException {
+        rows.end();
+        finishFileIfFull();
+    }
+
+    @Override
+    public void restartSequence(String table, String column, int lastValue) throws IOException {
+        if (rows == null) {
+            openNextFile();
+        }
+
+        rows.restartSequence(table, column, lastValue);
+    }
+
+    @Override
+    public void update(String table, String assignments, String condition) throws IOException {
+        if (rows == null) {
+            openNextFile();
+        }
+
+        rows.update(table, assignments, condition);
+        finishFileIfFull();
+    }
+
+    /**
+     * Finishes the last file, an empty file is written if there were no rows at all
+     * */
+    @Override
+    public void finish() throws IOException {
+        if (rows == null && fileNames.isEmpty()) {
+            openNextFile();
+        }
+
+        finishFile();
+    }
+
+    /**
+     * File names in the order they were written
+     * */
+    public List<String> getFileNames() {
+        return Collections.unmodifiableList(fileNames);
+    }
+
+    /**
+     * Bytes of all the files so far before compression
+     * */
+    public long getBytesWritten() throws IOException {
+        return closedFileBytes + (writer != null ? writer.getBytesWritten() : 0);
+    }
+
+    /**
+     * Closes the current file without finishing its statement, for the case of an error
+     * */
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            closedFileBytes += writer.getBytesWritten();
+            writer.close();
+            writer = null;
+            rows = null;
+        }
+    }
+
+    private void openNextFile() throws IOException {
+        String fileName = output.isSplit()
+                ? String.format("%s-%04d.sql%s", name, fileNames.size(), output.getCompression().getExtension())
+                : name + ".sql" + output.getCompression().getExtension();
+        writer = output.open(directory.resolve(fileName));
+        rows = output.getFormat().create(writer, output.getBatchSize());
+        fileNames.add(fileName);
+    }
+
+    /**
+     * Checked after every row, so the size is approximate and the text is encoded only when the char buffer fills up
+     * */
+    private void finishFileIfFull() throws IOException {
+        if (output.isSplit() && writer.getApproximateBytesWritten() >= output.getMaxFileSize()) {
+            finishFile();
+        }
+    }
+
+    private void finishFile() throws IOException {
+        if (rows != null) {
+            rows.finish();
+            close();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.company;
+
+/**
+ * Column of a CREATE TABLE statement with its constraints, a foreign key declared for the table is kept here too
+ * */
+public class Column {
+    private final String name;
+    private final ColumnType type;
+    private final int length;
+    private final boolean serial;
+    private boolean primaryKey;
+    private boolean notNull;
+    private boolean unique;
+    private boolean hasDefault;
+    private String referencedTable;
+    private String referencedColumn;
+
+    /**
+     * length of a VARCHAR, 0 for the other types
+     * */
+    Column(String name, ColumnType type, int length, boolean serial) {
+        this.name = name;
+        this.type = type;
+        this.length = length;
+        this.serial = serial;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ColumnType getType() {
+        return type;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public boolean isSerial() {
+        return serial;
+    }
+
+    /**
+     * The column alone is the primary key, the columns of a composite key are only NOT NULL
+     * */
+    public boolean isPrimaryKey() {
+        return primaryKey;
+    }
+
+    public boolean isNotNull() {
+        return notNull || primaryKey;
+    }
+
+    /**
+     * The column alone is a key, composite UNIQUE constraints are not kept
+     * */
+    public boolean isUnique() {
+        return unique || primaryKey;
+    }
+
+    /**
+     * A value can be left out of an INSERT: the column is SERIAL, has a default or may be NULL
+     * */
+    public boolean isOptional() {
+        return serial || hasDefault || !isNotNull();
+    }
+
+    /**
+     * Table of the foreign key, null when the column references nothing
+     * */
+    public String getReferencedTable() {
+        return referencedTable;
+    }
+
+    public String getReferencedColumn() {
+        return referencedColumn;
+    }
+
+    void setPrimaryKey() {
+        primaryKey = true;
+    }
+
+    void setNotNull() {
+        notNull = true;
+    }
+
+    void setUnique() {
+        unique = true;
+    }
+
+    void setDefault() {
+        hasDefault = true;
+    }
+
+    void setReference(String table, String column) {
+        this.referencedTable = table;
+        this.referencedColumn = column;
+    }
+}
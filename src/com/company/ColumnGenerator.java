@@ -0,0 +1,48 @@
+package com.company;
+
+import java.io.IOException;
+
+/**
+ * Writes the value of one column of a row. The range, length, type and distinctness it declares are checked against the constraints
+ * of the schema before the generation starts, see TableSpec; see ColumnGenerators for the generators themselves
+ * */
+public interface ColumnGenerator {
+    /**
+     * Writes the value of the row-th row of the table (counting from 0) and returns it, or the index of the text it wrote.
+     * values holds what the columns before this one returned for the same row
+     * */
+    long write(RowWriter rows, Randomizer random, int row, long[] values) throws IOException;
+
+    /**
+     * Smallest value written, dates as epoch days, negative infinity if not known
+     * */
+    default double getMin() {
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    default double getMax() {
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Longest text written, 0 if not known or not a text
+     * */
+    default int getMaxLength() {
+        return 0;
+    }
+
+    /**
+     * Kind of the values written, checked against the type of the column; null if not known
+     * */
+    default ColumnType getType() {
+        return null;
+    }
+
+    /**
+     * Whether the rows 0 .. rowsCount - 1 get values that differ from each other, checked for the keys and UNIQUE columns;
+     * false if not known
+     * */
+    default boolean isDistinct(int rowsCount) {
+        return false;
+    }
+}
@@ -0,0 +1,267 @@
+package com.company;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * Generators of the values of the columns, combined into TableSpecs
+ * */
+public final class ColumnGenerators {
+    private ColumnGenerators() {
+    }
+
+    /**
+     * first, first + 1, ... for the rows 0, 1, ..., count rows in total
+     * */
+    public static ColumnGenerator sequence(int first, int count) {
+        return new Bounded(ColumnType.INTEGER, first, (double) first + count - 1, 0) {
+            @Override
+            public long write(RowWriter rows, Randomizer random, int row, long[] values) throws IOException {
+                rows.value(first + row);
+                return first + row;
+            }
+
+            @Override
+            public boolean isDistinct(int rowsCount) {
+                return true;
+            }
+        };
+    }
+
+    public static ColumnGenerator constant(int value) {
+        return new Bounded(ColumnType.INTEGER, value, value, 0) {
+            @Override
+            public long write(RowWriter rows, Randomizer random, int row, long[] values) throws IOException {
+                rows.value(value);
+                return value;
+            }
+
+            @Override
+            public boolean isDistinct(int rowsCount) {
+                return rowsCount <= 1;
+            }
+        };
+    }
+
+    /**
+     * true for the rows from .. to - 1, false for the others
+     * */
+    public static ColumnGenerator flag(int from, int to) {
+        return new Bounded(ColumnType.BOOLEAN, 0, 1, 0) {
+            @Override
+            public long write(RowWriter rows, Randomizer random, int row, long[] values) throws IOException {
+                boolean value = row >= from && row < to;
+                rows.value(value);
+                return value ? 1 : 0;
+            }
+        };
+    }
+
+    /**
+     * Ids drawn from the distribution, e.g. references to another table
+     * */
+    public static ColumnGenerator draw(Distribution distribution) {
+        return new Bounded(ColumnType.INTEGER, distribution.getFrom(), distribution.getTo(), 0) {
+            @Override
+            public long write(RowWriter rows, Randomizer random, int row, long[] values) throws IOException {
+                int value = distribution.next(random);
+                rows.value(value);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Epoch days drawn from the distribution
+     * */
+    public static ColumnGenerator drawDate(Distribution distribution) {
+        return new Bounded(ColumnType.DATE, distribution.getFrom(), distribution.getTo(), 0) {
+            @Override
+            public long write(RowWriter rows, Randomizer random, int row, long[] values) throws IOException {
+                int value = distribution.next(random);
+                rows.date(value);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Randomizer.getWeight()
+     * */
+    public static ColumnGenerator weight() {
+        return new Bounded(ColumnType.REAL, Double.MIN_VALUE, 1, 0) {
+            @Override
+            public long write(RowWriter rows, Randomizer random, int row, long[] values) throws IOException {
+                rows.value(random.getWeight());
+                return 0;
+            }
+        };
+    }
+
+    /**
+     * texts[row - firstRow], one text per row
+     * */
+    public static ColumnGenerator list(int firstRow, String... texts) {
+        boolean distinct = isDistinct(texts);
+
+        return new Bounded(ColumnType.TEXT, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, maxLength(texts)) {
+            @Override
+            public long write(RowWriter rows, Randomizer random, int row, long[] values) throws IOException {
+                rows.text(texts[row - firstRow]);
+                return row - firstRow;
+            }
+
+            @Override
+            public boolean isDistinct(int rowsCount) {
+                return distinct && rowsCount - firstRow <= texts.length;
+            }
+        };
+    }
+
+    /**
+     * One of the texts at random, returns its index
+     * */
+    public static ColumnGenerator pick(String... texts) {
+        return new Bounded(ColumnType.TEXT, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, maxLength(texts)) {
+            @Override
+            public long write(RowWriter rows, Randomizer random, int row, long[] values) throws IOException {
+                int index = random.getNumber(0, texts.length - 1);
+                rows.text(texts[index]);
+                return index;
+            }
+        };
+    }
+
+    /**
+     * The text with the index returned by the column at position column of the spec, e.g. the body matching a picked title
+     * */
+    public static ColumnGenerator sameIndex(int column, String... texts) {
+        return new Bounded(ColumnType.TEXT, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, maxLength(texts)) {
+            @Override
+            public long write(RowWriter rows, Randomizer random, int row, long[] values) throws IOException {
+                int index = (int) values[column];
+                rows.text(texts[index]);
+                return index;
+            }
+        };
+    }
+
+    /**
+     * (row - firstRow)-th combination "first second third", third changes first.
+     * Indexes beyond the number of combinations wrap around, so the texts repeat at scale factors above 1
+     * */
+    public static ColumnGenerator combination(int firstRow, String[] first, String[] second, String[] third) {
+        boolean distinct = isDistinct(first) && isDistinct(second) && isDistinct(third);
+        long combinations = (long) first.length * second.length * third.length;
+
+        return new Bounded(ColumnType.TEXT, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                maxLength(first) + maxLength(second) + maxLength(third) + 2) {
+            @Override
+            public long write(RowWriter rows, Randomizer random, int row, long[] values) throws IOException {
+                int i = row - firstRow;
+                String thirdText = third[i % third.length];
+                i /= third.length;
+                String secondText = second[i % second.length];
+                i /= second.length;
+                rows.text(first[i % first.length], secondText, thirdText);
+                return row - firstRow;
+            }
+
+            /**
+             * Distinct until the combinations wrap around, when the words of each list differ
+             * */
+            @Override
+            public boolean isDistinct(int rowsCount) {
+                return distinct && rowsCount - firstRow <= combinations;
+            }
+        };
+    }
+
+    /**
+     * generators[0] for the rows before firstRows[0], generators[k] for the rows from firstRows[k - 1] .. firstRows[k] - 1,
+     * the last generator for the rest. The generators have to write values of the same type,
+     * the values of different generators are not known to be distinct
+     * */
+    public static ColumnGenerator ranges(int[] firstRows, ColumnGenerator... generators) {
+        if (firstRows.length + 1 != generators.length) {
+            throw new IllegalArgumentException("Expected " + (firstRows.length + 1) + " generators for " + Arrays.toString(firstRows));
+        }
+
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        int maxLength = 0;
+        ColumnType type = generators[0].getType();
+
+        for (ColumnGenerator generator : generators) {
+            if (generator.getType() != type) {
+                throw new IllegalArgumentException("Ranges of " + type + " and " + generator.getType() + " values");
+            }
+
+            min = Math.min(min, generator.getMin());
+            max = Math.max(max, generator.getMax());
+            maxLength = Math.max(maxLength, generator.getMaxLength());
+        }
+
+        return new Bounded(type, min, max, maxLength) {
+            @Override
+            public long write(RowWriter rows, Randomizer random, int row, long[] values) throws IOException {
+                int k = 0;
+
+                while (k < firstRows.length && row >= firstRows[k]) {
+                    k++;
+                }
+
+                return generators[k].write(rows, random, row, values);
+            }
+        };
+    }
+
+    private static boolean isDistinct(String[] texts) {
+        return new HashSet<>(Arrays.asList(texts)).size() == texts.length;
+    }
+
+    private static int maxLength(String[] texts) {
+        int length = 0;
+
+        for (String text : texts) {
+            length = Math.max(length, text.length());
+        }
+
+        return length;
+    }
+
+    private abstract static class Bounded implements ColumnGenerator {
+        private final ColumnType type;
+        private final double min;
+        private final double max;
+        private final int maxLength;
+
+        Bounded(ColumnType type, double min, double max, int maxLength) {
+            this.type = type;
+            this.min = min;
+            this.max = max;
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public double getMin() {
+            return min;
+        }
+
+        @Override
+        public double getMax() {
+            return max;
+        }
+
+        @Override
+        public int getMaxLength() {
+            return maxLength;
+        }
+
+        @Override
+        public ColumnType getType() {
+            return type;
+        }
+    }
+}
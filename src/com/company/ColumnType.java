@@ -0,0 +1,43 @@
+package com.company;
+
+import java.util.Locale;
+
+/**
+ * SQL types of ddlCreation.sql reduced to the ways a value is written
+ * */
+public enum ColumnType {
+    INTEGER,
+    REAL,
+    BOOLEAN,
+    DATE,
+    TEXT;
+
+    public static ColumnType of(String sqlType) {
+        switch (sqlType.toUpperCase(Locale.ROOT)) {
+            case "SERIAL":
+            case "BIGSERIAL":
+            case "SMALLINT":
+            case "INT":
+            case "INTEGER":
+            case "BIGINT":
+                return INTEGER;
+            case "REAL":
+            case "FLOAT":
+            case "DOUBLE":
+            case "NUMERIC":
+                return REAL;
+            case "BOOLEAN":
+            case "BOOL":
+                return BOOLEAN;
+            case "DATE":
+                return DATE;
+            case "VARCHAR":
+            case "CHARACTER VARYING":
+            case "CHAR":
+            case "TEXT":
+                return TEXT;
+            default:
+                throw new IllegalArgumentException("Unsupported column type " + sqlType);
+        }
+    }
+}
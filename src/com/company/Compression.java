@@ -0,0 +1,50 @@
+package com.company;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+public enum Compression {
+    NONE(""),
+    /**
+     * gzip with the fastest level, so compressing keeps up with the generation.
+     * Load with zcat file.sql.gz | psql
+     * */
+    GZIP(".gz");
+
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
+    private final String extension;
+
+    Compression(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Suffix added after .sql
+     * */
+    public String getExtension() {
+        return extension;
+    }
+
+    public WritableByteChannel wrap(WritableByteChannel channel) throws IOException {
+        if (this == NONE) {
+            return channel;
+        }
+
+        OutputStream stream = new GZIPOutputStream(Channels.newOutputStream(channel), GZIP_BUFFER_SIZE) {
+            {
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        };
+        return Channels.newChannel(stream);
+    }
+
+    public static Compression of(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,100 @@
+package com.company;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * COPY ... FROM stdin blocks in the PostgreSQL text format, terminated by \.
+ * The block is restarted when the table or the column list changes
+ * */
+public class CopyRowWriter extends TextRowWriter {
+    private String table;
+    private String columns;
+    private boolean open = false;
+
+    public CopyRowWriter(Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    protected void beginRow(String table, String columns) throws IOException {
+        if (open && !(table.equals(this.table) && columns.equals(this.columns))) {
+            finishStatement();
+        }
+
+        if (!open) {
+            startCopy(table, columns);
+            this.table = table;
+            this.columns = columns;
+            open = true;
+        }
+    }
+
+    @Override
+    protected void endRow() {
+        row.append('\n');
+    }
+
+    @Override
+    protected void finishStatement() throws IOException {
+        if (open) {
+            endCopy();
+            open = false;
+        }
+    }
+
+    protected void startCopy(String table, String columns) throws IOException {
+        row.append("COPY ").append(table).append(" (").append(columns).append(") FROM stdin");
+        appendOptions();
+        row.append(";\n");
+    }
+
+    protected void endCopy() throws IOException {
+        row.append("\\.\n");
+    }
+
+    protected void appendOptions() {
+    }
+
+    @Override
+    protected void appendSeparator() {
+        row.append('\t');
+    }
+
+    @Override
+    protected void appendBoolean(boolean value) {
+        row.append(value ? 't' : 'f');
+    }
+
+    @Override
+    protected void openText() {
+    }
+
+    @Override
+    protected void closeText() {
+    }
+
+    @Override
+    protected void appendEscaped(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            switch (c) {
+                case '\\':
+                    row.append("\\\\");
+                    break;
+                case '\t':
+                    row.append("\\t");
+                    break;
+                case '\n':
+                    row.append("\\n");
+                    break;
+                case '\r':
+                    row.append("\\r");
+                    break;
+                default:
+                    row.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.company;
+
+import java.io.Writer;
+
+/**
+ * COPY ... FROM stdin WITH (FORMAT csv) blocks, text values are always quoted
+ * */
+public class CsvRowWriter extends CopyRowWriter {
+
+    public CsvRowWriter(Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    protected void appendOptions() {
+        row.append(" WITH (FORMAT csv)");
+    }
+
+    @Override
+    protected void appendSeparator() {
+        row.append(',');
+    }
+
+    @Override
+    protected void openText() {
+        row.append('"');
+    }
+
+    @Override
+    protected void closeText() {
+        row.append('"');
+    }
+
+    @Override
+    protected void appendEscaped(String value) {
+        appendDoublingQuotes(value, '"');
+    }
+}
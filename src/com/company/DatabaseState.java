@@ -0,0 +1,217 @@
+package com.company;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Last ids of an already loaded database, the append mode continues from them.
+ * Saved as a properties file next to the scripts, or read from the database itself by query().
+ * The ids of a table are taken to be contiguous, as the generator writes them
+ * */
+public class DatabaseState {
+    public static final String DEFAULT_FILE = "state.properties";
+
+    private static final String LAST_PERSON_ID = "lastPersonId";
+    private static final String FIRST_SOUL_ID = "firstSoulId";
+    private static final String LAST_USER_ID = "lastUserId";
+    private static final String FIRST_MONSTER_ID = "firstMonsterId";
+    private static final String LAST_MONSTER_ID = "lastMonsterId";
+    private static final String FIRST_TARTAR_LOCATION_ID = "firstTartarLocationId";
+    private static final String LAST_TARTAR_LOCATION_ID = "lastTartarLocationId";
+    private static final String LAST_TORTURE_ID = "lastTortureId";
+    private static final String LAST_WORK_ID = "lastWorkId";
+    private static final String LAST_EVENT_ID = "lastEventId";
+    private static final String LAST_COMPLAINT_ID = "lastComplaintId";
+    private static final String ROUND = "round";
+
+    private final Properties properties;
+
+    private DatabaseState(Properties properties) {
+        this.properties = properties;
+
+        for (String name : new String[]{LAST_PERSON_ID, FIRST_SOUL_ID, LAST_USER_ID, FIRST_MONSTER_ID, LAST_MONSTER_ID,
+                FIRST_TARTAR_LOCATION_ID, LAST_TARTAR_LOCATION_ID, LAST_TORTURE_ID, LAST_WORK_ID, LAST_EVENT_ID,
+                LAST_COMPLAINT_ID, ROUND}) {
+            get(name);
+        }
+
+        if (getFirstSoulId() < 1 || getFirstSoulId() > getLastPersonId() || getLastUserId() < 1 || getLastTortureId() < 1
+                || getLastWorkId() < 1 || getFirstMonsterId() > getLastMonsterId()
+                || getFirstTartarLocationId() > getLastTartarLocationId()) {
+            throw new IllegalArgumentException("The database has no souls, users, monsters, tortures, works or Tartar locations: "
+                    + properties);
+        }
+    }
+
+    /**
+     * State after a full generation of the layout
+     * */
+    public static DatabaseState of(Layout layout) {
+        Properties properties = new Properties();
+        set(properties, LAST_PERSON_ID, layout.getLastPersonId());
+        set(properties, FIRST_SOUL_ID, layout.getFirstSoulId());
+        set(properties, LAST_USER_ID, layout.getLastUserId());
+        set(properties, FIRST_MONSTER_ID, layout.getFirstMonsterId());
+        set(properties, LAST_MONSTER_ID, layout.getLastMonsterId());
+        set(properties, FIRST_TARTAR_LOCATION_ID, 1);
+        set(properties, LAST_TARTAR_LOCATION_ID, layout.getTartarLevelLocationsCount());
+        set(properties, LAST_TORTURE_ID, layout.getTorturesCount());
+        set(properties, LAST_WORK_ID, layout.getWorksCount());
+        set(properties, LAST_EVENT_ID, layout.getEventsCount());
+        set(properties, LAST_COMPLAINT_ID, layout.getComplaintsCount());
+        set(properties, ROUND, 0);
+        return new DatabaseState(properties);
+    }
+
+    public static DatabaseState read(Path file) throws IOException {
+        Properties properties = new Properties();
+
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+
+        return new DatabaseState(properties);
+    }
+
+    /**
+     * Reads the last ids with MIN and MAX queries. The round is 0 as it is not kept in the database,
+     * the randomizer of a round is keyed by the last ids, so a later session does not repeat the earlier rounds
+     * */
+    public static DatabaseState query(Connection connection) throws SQLException {
+        Properties properties = new Properties();
+
+        try (Statement statement = connection.createStatement()) {
+            set(properties, LAST_PERSON_ID, queryInt(statement, "SELECT MAX(id) FROM person"));
+            set(properties, FIRST_SOUL_ID, queryInt(statement, "SELECT MIN(person_id) FROM soul"));
+            set(properties, LAST_USER_ID, queryInt(statement, "SELECT MAX(person_id) FROM _user"));
+            set(properties, FIRST_MONSTER_ID, queryInt(statement, "SELECT MIN(person_id) FROM monster"));
+            set(properties, LAST_MONSTER_ID, queryInt(statement, "SELECT MAX(person_id) FROM monster"));
+            set(properties, FIRST_TARTAR_LOCATION_ID, queryInt(statement, "SELECT MIN(_location.id) FROM _location"
+                    + " JOIN _level ON _location.level_id = _level.id WHERE _level._name = '" + TableSpecs.levels[0] + "'"));
+            set(properties, LAST_TARTAR_LOCATION_ID, queryInt(statement, "SELECT MAX(_location.id) FROM _location"
+                    + " JOIN _level ON _location.level_id = _level.id WHERE _level._name = '" + TableSpecs.levels[0] + "'"));
+            set(properties, LAST_TORTURE_ID, queryInt(statement, "SELECT MAX(id) FROM torture"));
+            set(properties, LAST_WORK_ID, queryInt(statement, "SELECT MAX(id) FROM work"));
+            set(properties, LAST_EVENT_ID, queryInt(statement, "SELECT MAX(id) FROM _event"));
+            set(properties, LAST_COMPLAINT_ID, queryInt(statement, "SELECT MAX(id) FROM complaint"));
+            set(properties, ROUND, 0);
+        }
+
+        return new DatabaseState(properties);
+    }
+
+    public void write(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Last ids of the generated database");
+        }
+    }
+
+    /**
+     * State after appending the souls, events and complaints of delta, in the next round
+     * */
+    public DatabaseState next(Layout delta) {
+        Properties next = new Properties();
+        next.putAll(properties);
+        set(next, LAST_PERSON_ID, add(getLastPersonId(), delta.getSoulsCount()));
+        set(next, LAST_EVENT_ID, add(getLastEventId(), delta.getEventsCount()));
+        set(next, LAST_COMPLAINT_ID, add(getLastComplaintId(), delta.getComplaintsCount()));
+        set(next, ROUND, getRound() + 1);
+        return new DatabaseState(next);
+    }
+
+    public int getLastPersonId() {
+        return get(LAST_PERSON_ID);
+    }
+
+    public int getFirstSoulId() {
+        return get(FIRST_SOUL_ID);
+    }
+
+    public int getLastUserId() {
+        return get(LAST_USER_ID);
+    }
+
+    public int getFirstMonsterId() {
+        return get(FIRST_MONSTER_ID);
+    }
+
+    public int getLastMonsterId() {
+        return get(LAST_MONSTER_ID);
+    }
+
+    public int getFirstTartarLocationId() {
+        return get(FIRST_TARTAR_LOCATION_ID);
+    }
+
+    public int getLastTartarLocationId() {
+        return get(LAST_TARTAR_LOCATION_ID);
+    }
+
+    public int getLastTortureId() {
+        return get(LAST_TORTURE_ID);
+    }
+
+    public int getLastWorkId() {
+        return get(LAST_WORK_ID);
+    }
+
+    public int getLastEventId() {
+        return get(LAST_EVENT_ID);
+    }
+
+    public int getLastComplaintId() {
+        return get(LAST_COMPLAINT_ID);
+    }
+
+    /**
+     * Number of append rounds done since the state was saved or queried, it numbers the scripts of the rounds
+     * */
+    public int getRound() {
+        return get(ROUND);
+    }
+
+    @Override
+    public String toString() {
+        return properties.toString();
+    }
+
+    private int get(String name) {
+        String value = properties.getProperty(name);
+
+        if (value == null) {
+            throw new IllegalArgumentException("No " + name + " in the state");
+        }
+
+        return Integer.parseInt(value.trim());
+    }
+
+    private static void set(Properties properties, String name, int value) {
+        properties.setProperty(name, Integer.toString(value));
+    }
+
+    private static int add(int lastId, int count) {
+        if ((long) lastId + count > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Ids after " + lastId + " run out");
+        }
+
+        return lastId + count;
+    }
+
+    /**
+     * 0 for an empty table
+     * */
+    private static int queryInt(Statement statement, String sql) throws SQLException {
+        try (ResultSet result = statement.executeQuery(sql)) {
+            return result.next() ? result.getInt(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.company;
+
+import java.util.Locale;
+
+/**
+ * Values from .. to (both included) drawn with some skew, built once for the columns of the same range and spec
+ * and shared by all the threads. Drawing a value takes constant time whatever the range is.
+ * Spec: uniform, zipf[:exponent], hotspot[:percent of draws[:percent of values]] or normal[:deviation as a part of the range]
+ * */
+public abstract class Distribution {
+    protected final int from;
+    protected final int to;
+    private String spec = "uniform";
+    private long multiplier = 1;
+    private long offset = 0;
+
+    protected Distribution(int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("Empty range " + from + " .. " + to);
+        }
+
+        this.from = from;
+        this.to = to;
+    }
+
+    public abstract int next(Randomizer random);
+
+    /**
+     * dates tells that the values are epoch days, uniform days are drawn as Randomizer.getEpochDay does.
+     * The skewed distributions of ids draw their hot values in the order of a permutation of the range taken from random,
+     * so they are spread over the range instead of being the lowest ids; days keep their order
+     * */
+    public static Distribution parse(String spec, int from, int to, boolean dates, Randomizer random) {
+        String normalized = normalize(spec);
+        String[] parts = normalized.split(":");
+        Distribution distribution;
+
+        switch (parts[0]) {
+            case "uniform":
+                return new UniformDistribution(from, to, dates);
+            case "zipf":
+                distribution = AliasDistribution.zipf(from, to, Double.parseDouble(parts[1]));
+                break;
+            case "hotspot":
+                distribution = new HotspotDistribution(from, to, Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                break;
+            default:
+                distribution = AliasDistribution.normal(from, to, Double.parseDouble(parts[1]));
+                break;
+        }
+
+        distribution.spec = normalized;
+
+        if (!dates) {
+            distribution.permute(random);
+        }
+
+        return distribution;
+    }
+
+    /**
+     * The spec with the defaults filled in, e.g. zipf:1.0 for zipf, so equal distributions have equal specs
+     * */
+    public static String normalize(String spec) {
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+
+        try {
+            switch (parts[0]) {
+                case "uniform":
+                    return "uniform";
+                case "zipf":
+                    return "zipf:" + (parts.length > 1 ? Double.parseDouble(parts[1]) : 1.0);
+                case "hotspot":
+                    return "hotspot:" + (parts.length > 1 ? Double.parseDouble(parts[1]) : 80.0)
+                            + ":" + (parts.length > 2 ? Double.parseDouble(parts[2]) : 20.0);
+                case "normal":
+                    return "normal:" + (parts.length > 1 ? Double.parseDouble(parts[1]) : 1.0 / 6);
+                default:
+                    throw new IllegalArgumentException("Unknown distribution: " + spec);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid distribution: " + spec, e);
+        }
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getTo() {
+        return to;
+    }
+
+    /**
+     * Normalized spec, see normalize
+     * */
+    public String getSpec() {
+        return spec;
+    }
+
+    /**
+     * Value of the rank-th value of the distribution, the subclasses draw ranks from 0 (the hottest value) to to - from
+     * */
+    protected int value(int rank) {
+        return from + (int) ((multiplier * rank + offset) % ((long) to - from + 1));
+    }
+
+    /**
+     * Takes rank to (multiplier * rank + offset) mod the size of the range, a permutation when the multiplier is coprime with it
+     * */
+    private void permute(Randomizer random) {
+        long count = (long) to - from + 1;
+
+        if (count < 2 || count > Integer.MAX_VALUE) {
+            return;
+        }
+
+        do {
+            multiplier = random.getNumber(1, (int) count - 1);
+        } while (gcd(multiplier, count) != 1);
+
+        offset = random.getIndex((int) count);
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+
+        return a;
+    }
+}
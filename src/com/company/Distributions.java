@@ -0,0 +1,163 @@
+package com.company;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Distribution of every column drawn at random, over the id range of the referenced table or the date range of the column.
+ * Configured with a spec like "handler_id=zipf:1.2,soul.torture_id=hotspot:80:20,_date=normal",
+ * a column name alone applies to all the tables, table.column to one of them; the rest are uniform.
+ * Columns of the same range and spec share one Distribution, with the same hot values
+ * */
+public class Distributions {
+    private final Map<String, Distribution> columns = new LinkedHashMap<>();
+    private final Map<String, String> specs = new HashMap<>();
+    private final Map<String, Distribution> shared = new HashMap<>();
+    private final Randomizer randomizer;
+
+    private Distributions(Randomizer randomizer, String spec) {
+        this.randomizer = randomizer;
+
+        for (String entry : spec.split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+
+            int separator = entry.indexOf('=');
+
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected column=distribution: " + entry);
+            }
+
+            specs.put(entry.substring(0, separator).trim(), entry.substring(separator + 1));
+        }
+    }
+
+    /**
+     * Columns drawn at random by a full generation of the layout, randomizer permutes the skewed ids
+     * */
+    static Distributions forLayout(Layout layout, Randomizer randomizer, String spec) {
+        Distributions distributions = new Distributions(randomizer, spec);
+        int firstHandlerId = layout.getFirstHandlerId();
+        int lastUserId = layout.getLastUserId();
+        int tartarLocations = layout.getTartarLevelLocationsCount();
+
+        distributions.add("monster", "location_id", 1, tartarLocations, false);
+        distributions.add("monster", "motherland_id", 1, tartarLocations, false);
+        distributions.add("torture", "monster_id", layout.getFirstMonsterId(), layout.getLastMonsterId(), false);
+        distributions.add("torture", "creator_id", firstHandlerId, lastUserId, false);
+        distributions.add("torture", "handler_id", firstHandlerId, lastUserId, false);
+        distributions.add("work", "location_id", tartarLocations + 1, layout.getLocationsCount(), false);
+        distributions.add("work", "creator_id", firstHandlerId, lastUserId, false);
+        distributions.add("sin_type", "creator_id", firstHandlerId, lastUserId, false);
+        distributions.add("sin_type", "handler_id", firstHandlerId, lastUserId, false);
+        distributions.add("sin_type", "torture_id", 1, layout.getTorturesCount(), false);
+        distributions.add("soul", "birth_date", (int) TableSpecs.birthDateFrom, (int) TableSpecs.birthDateTo - 1, true);
+        distributions.add("soul", "date_of_death", (int) TableSpecs.deathDateFrom, (int) TableSpecs.deathDateTo - 1, true);
+        distributions.add("soul", "handler_id", firstHandlerId, lastUserId, false);
+        distributions.add("soul", "torture_id", 1, layout.getTorturesCount(), false);
+        distributions.add("complaint", "soul_id", layout.getFirstSoulId(), layout.getLastTorturedSoulId(), false);
+        distributions.add("_event", "soul_id", layout.getFirstSoulId(), layout.getLastTorturedSoulId(), false);
+        distributions.add("_event", "_date", (int) TableSpecs.eventDateFrom, (int) TableSpecs.eventDateTo - 1, true);
+        distributions.add("_event", "handler_id", firstHandlerId, lastUserId, false);
+        distributions.add("sin_type_distribution_list", "sin_type_id", 1, layout.getSinTypesCount(), false);
+        distributions.add("work_list", "work_id", 1, layout.getWorksCount(), false);
+        distributions.verify(null);
+        return distributions;
+    }
+
+    /**
+     * Columns drawn at random by an append round from state to next, including the rows the updates of the round pick:
+     * references span the rows already in the database and the appended ones.
+     * The same randomizer as the full generation keeps the hot values of the ranges that do not grow.
+     * The spec of the full generation can be reused: the columns of schema that the rounds do not draw are ignored
+     * */
+    static Distributions forAppend(DatabaseState state, DatabaseState next, int firstHandlerId, Randomizer randomizer, String spec,
+                                   Schema schema) {
+        Distributions distributions = new Distributions(randomizer, spec);
+        int lastUserId = state.getLastUserId();
+        int firstSoulId = state.getFirstSoulId();
+
+        distributions.add("soul", "birth_date", (int) TableSpecs.birthDateFrom, (int) TableSpecs.birthDateTo - 1, true);
+        distributions.add("soul", "date_of_death", (int) TableSpecs.deathDateFrom, (int) TableSpecs.deathDateTo - 1, true);
+        distributions.add("soul", "handler_id", firstHandlerId, lastUserId, false);
+        distributions.add("soul", "torture_id", 1, state.getLastTortureId(), false);
+        distributions.add("complaint", "soul_id", firstSoulId, next.getLastPersonId(), false);
+        distributions.add("_event", "soul_id", firstSoulId, next.getLastPersonId(), false);
+        distributions.add("_event", "_date", (int) TableSpecs.eventDateFrom, (int) TableSpecs.eventDateTo - 1, true);
+        distributions.add("work_list", "work_id", 1, state.getLastWorkId(), false);
+        distributions.add("monster", "person_id", state.getFirstMonsterId(), state.getLastMonsterId(), false);
+        distributions.add("monster", "location_id", state.getFirstTartarLocationId(), state.getLastTartarLocationId(), false);
+        distributions.add("_user", "person_id", firstHandlerId, lastUserId, false);
+        distributions.add("soul", "person_id", firstSoulId, next.getLastPersonId(), false);
+        distributions.add("_event", "id", 1, next.getLastEventId(), false);
+        distributions.add("complaint", "id", 1, next.getLastComplaintId(), false);
+        distributions.verify(schema);
+        return distributions;
+    }
+
+    public Distribution get(String table, String column) {
+        Distribution distribution = columns.get(table + "." + column);
+
+        if (distribution == null) {
+            throw new IllegalArgumentException("No distribution for " + table + "." + column);
+        }
+
+        return distribution;
+    }
+
+    /**
+     * The columns that are not uniform with their normalized specs, e.g. soul.handler_id=zipf:1.5, empty when all are uniform
+     * */
+    public String getSpec() {
+        StringBuilder spec = new StringBuilder();
+
+        for (Map.Entry<String, Distribution> entry : columns.entrySet()) {
+            if (!(entry.getValue() instanceof UniformDistribution)) {
+                spec.append(spec.length() > 0 ? "," : "").append(entry.getKey()).append('=').append(entry.getValue().getSpec());
+            }
+        }
+
+        return spec.toString();
+    }
+
+    /**
+     * Every configured column has to be drawn, or be one of the columns of ignored when it is given
+     * */
+    private void verify(Schema ignored) {
+        for (String name : specs.keySet()) {
+            if (!columns.containsKey(name) && columns.keySet().stream().noneMatch(column -> column.endsWith("." + name))
+                    && (ignored == null || !hasColumn(ignored, name))) {
+                throw new IllegalArgumentException("Unknown column " + name + ", expected one of " + columns.keySet());
+            }
+        }
+    }
+
+    /**
+     * name is table.column or a column name of any table
+     * */
+    private static boolean hasColumn(Schema schema, String name) {
+        int separator = name.indexOf('.');
+
+        for (Table table : schema.getTables()) {
+            if (separator < 0 || table.getName().equals(name.substring(0, separator))) {
+                String column = name.substring(separator + 1);
+
+                if (table.getColumns().stream().anyMatch(candidate -> candidate.getName().equals(column))) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private void add(String table, String column, int from, int to, boolean dates) {
+        String name = table + "." + column;
+        String spec = Distribution.normalize(specs.getOrDefault(name, specs.getOrDefault(column, "uniform")));
+        columns.put(name, shared.computeIfAbsent(spec + " " + from + " " + to + " " + dates, key -> Distribution.parse(spec, from,
+                to, dates, randomizer.fork("distribution", Objects.hash(spec, from, to)))));
+    }
+}
@@ -0,0 +1,32 @@
+package com.company;
+
+/**
+ * hotDrawsPercent of the draws fall on the first hotValuesPercent of the ranks, see Distribution.value, e.g. 80 of the draws on 20 percent
+ * */
+public class HotspotDistribution extends Distribution {
+    private final double hotDrawsPart;
+    private final int hotCount;
+
+    public HotspotDistribution(int from, int to, double hotDrawsPercent, double hotValuesPercent) {
+        super(from, to);
+
+        if (!(hotDrawsPercent >= 0 && hotDrawsPercent <= 100 && hotValuesPercent > 0 && hotValuesPercent <= 100)) {
+            throw new IllegalArgumentException("Invalid hotspot " + hotDrawsPercent + ":" + hotValuesPercent);
+        }
+
+        long count = (long) to - from + 1;
+        this.hotDrawsPart = hotDrawsPercent / 100;
+        this.hotCount = (int) Math.max(1, Math.min(count, Math.round(count * hotValuesPercent / 100)));
+    }
+
+    @Override
+    public int next(Randomizer random) {
+        int coldCount = to - from + 1 - hotCount;
+
+        if (coldCount == 0 || random.getDouble() < hotDrawsPart) {
+            return value(random.getIndex(hotCount));
+        }
+
+        return value(hotCount + random.getIndex(coldCount));
+    }
+}
@@ -0,0 +1,101 @@
+package com.company;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Adds load to an already loaded database in rounds, for soak tests. A round appends the souls of a layout of the given
+ * scale factor with the ids after the last ones of the database, their work list entries, new events and complaints,
+ * then runs UPDATE statements that fire the triggers of the schema:
+ * monsters move between the Tartar locations (tr_update_monster), users log in (tr_authorize),
+ * events and complaints are handled (tr_handle_event, tr_handle_complaint) and souls get tortures by hand (tr_distribute_soul_by_hand).
+ * Every round draws from a fork of the randomizer keyed by the last ids of its state, so the same seed and state give
+ * the same round, while the rounds of a later session, which start from a grown database, differ from the earlier ones
+ * */
+public class IncrementalGenerator {
+    private static final int UPDATE_KINDS = 5;
+
+    private final Schema schema;
+    private final double scaleFactor;
+    private final int chunkRows;
+    private final String distributions;
+    private final int updatesCount;
+    private final Randomizer randomizer;
+    private final Metrics metrics;
+
+    /**
+     * updatesCount is the number of UPDATE statements per round, negative for as many as the complaints of the round.
+     * metrics may be null
+     * */
+    public IncrementalGenerator(Schema schema, double scaleFactor, int chunkRows, String distributions, int updatesCount,
+                                Randomizer randomizer, Metrics metrics) {
+        this.schema = schema;
+        this.scaleFactor = scaleFactor;
+        this.chunkRows = chunkRows;
+        this.distributions = distributions;
+        this.updatesCount = updatesCount;
+        this.randomizer = randomizer;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Writes the next round after state and returns the state after it. The caller finishes rows
+     * */
+    public DatabaseState append(RowWriter rows, DatabaseState state) throws IOException {
+        Randomizer round = randomizer.fork("append",
+                Objects.hash(state.getLastPersonId(), state.getLastEventId(), state.getLastComplaintId()));
+        Layout delta = new Layout(scaleFactor, chunkRows, round, "", schema);
+        DatabaseState next = state.next(delta);
+        Distributions distributions = Distributions.forAppend(state, next, delta.getFirstHandlerId(), randomizer,
+                this.distributions, schema);
+        Map<String, TableSpec> specs = TableSpecs.createDelta(schema, delta, state, next, distributions);
+        int updates = updatesCount >= 0 ? updatesCount : delta.getComplaintsCount();
+
+        if (metrics != null) {
+            long rowsCount = updates;
+
+            for (TableSpec spec : specs.values()) {
+                rowsCount += spec.getRowsCount();
+            }
+
+            metrics.plan(rowsCount);
+        }
+
+        new Generator(rows, specs, chunkRows, round, metrics).generate();
+        long start = System.nanoTime();
+        writeUpdates(rows, round.fork("updates", 0), distributions, updates);
+
+        if (metrics != null) {
+            metrics.addPhaseTime("updates", System.nanoTime() - start);
+        }
+
+        return next;
+    }
+
+    private static void writeUpdates(RowWriter rows, Randomizer random, Distributions distributions, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            switch (random.getIndex(UPDATE_KINDS)) {
+                case 0:
+                    rows.update("monster", "location_id = " + distributions.get("monster", "location_id").next(random),
+                            "person_id = " + distributions.get("monster", "person_id").next(random));
+                    break;
+                case 1:
+                    rows.update("_user", "is_active = true", "person_id = " + distributions.get("_user", "person_id").next(random));
+                    break;
+                case 2:
+                    rows.update("_event", "status_id = " + random.getNumber(1, TableSpecs.statuses.length),
+                            "id = " + distributions.get("_event", "id").next(random));
+                    break;
+                case 3:
+                    rows.update("complaint", "status_id = " + random.getNumber(1, TableSpecs.statuses.length),
+                            "id = " + distributions.get("complaint", "id").next(random));
+                    break;
+                default:
+                    rows.update("soul", "torture_id = " + distributions.get("soul", "torture_id").next(random),
+                            "person_id = " + distributions.get("soul", "person_id").next(random));
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.company;
+
+import java.io.Writer;
+
+/**
+ * One INSERT INTO ... VALUES (...); statement per row
+ * */
+public class InsertRowWriter extends TextRowWriter {
+
+    public InsertRowWriter(Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    protected void beginRow(String table, String columns) {
+        row.append("INSERT INTO ").append(table).append(" (").append(columns).append(") VALUES (");
+    }
+
+    @Override
+    protected void endRow() {
+        row.append(");\n");
+    }
+
+    @Override
+    protected void finishStatement() {
+    }
+
+    @Override
+    protected void appendSeparator() {
+        row.append(", ");
+    }
+
+    @Override
+    protected void appendBoolean(boolean value) {
+        row.append(value ? "true" : "false");
+    }
+
+    @Override
+    protected void openText() {
+        row.append('\'');
+    }
+
+    @Override
+    protected void closeText() {
+        row.append('\'');
+    }
+
+    @Override
+    protected void appendEscaped(String value) {
+        appendDoublingQuotes(value, '\'');
+    }
+}
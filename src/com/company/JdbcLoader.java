@@ -0,0 +1,115 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Loads the generated rows into a database over JDBC instead of writing a script.
+ * PostgreSQL connections opened by PgJDBC get COPY FROM STDIN, any other driver gets batched inserts
+ * */
+public class JdbcLoader {
+    private static final Pattern CREATE_TABLE = Pattern.compile("(?i)CREATE\\s+TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?(\\w+)");
+    private static final Pattern CREATE_VIEW = Pattern.compile("(?i)CREATE\\s+(?:OR\\s+REPLACE\\s+)?VIEW\\s");
+
+    private final Connection connection;
+    private final Layout layout;
+    private final Randomizer randomizer;
+    private final int batchSize;
+    private final int commitRows;
+    private final boolean copy;
+
+    public JdbcLoader(Connection connection, Layout layout, Randomizer randomizer, int batchSize, int commitRows, boolean copy) {
+        this.connection = connection;
+        this.layout = layout;
+        this.randomizer = randomizer;
+        this.batchSize = batchSize;
+        this.commitRows = commitRows;
+        this.copy = copy;
+    }
+
+    /**
+     * Runs the CREATE TABLE statements of the DDL script in the load order of its schema, so a table is created
+     * after the tables it references. Views are left to createViews(), functions and triggers are skipped
+     * as they are PostgreSQL specific and the loaded data does not depend on them
+     * */
+    public void createTables(Path ddl) throws IOException, SQLException {
+        String script = new String(Files.readAllBytes(ddl), StandardCharsets.UTF_8);
+        Map<String, String> statements = new HashMap<>();
+
+        for (String sql : script.split(";")) {
+            Matcher matcher = CREATE_TABLE.matcher(sql.trim());
+
+            if (matcher.lookingAt()) {
+                statements.put(matcher.group(1), sql.trim());
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            for (Table table : Schema.parse(script).getLoadOrder()) {
+                statement.execute(statements.get(table.getName()));
+            }
+        }
+
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    /**
+     * Runs the CREATE VIEW statements of the DDL script in their order, after createTables().
+     * Materialized views are skipped, as other databases do not have them
+     * */
+    public void createViews(Path ddl) throws IOException, SQLException {
+        String script = new String(Files.readAllBytes(ddl), StandardCharsets.UTF_8);
+
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : script.split(";")) {
+                if (CREATE_VIEW.matcher(sql.trim()).lookingAt()) {
+                    statement.execute(sql.trim());
+                }
+            }
+        }
+
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    public void load() throws IOException {
+        load(null);
+    }
+
+    /**
+     * Counts the loaded rows into metrics, metrics may be null
+     * */
+    public void load(Metrics metrics) throws IOException {
+        RowWriter rows = createWriter(connection, batchSize, commitRows, copy);
+
+        if (metrics != null) {
+            metrics.plan(layout.getRowsCount());
+            rows = new MeteredRowWriter(rows, metrics);
+        }
+
+        Generator generator = new Generator(rows, layout, randomizer, metrics);
+        generator.generate();
+        rows.finish();
+    }
+
+    /**
+     * COPY through PgJDBC if copy is set and the connection supports it, batched inserts otherwise
+     * */
+    public static RowWriter createWriter(Connection connection, int batchSize, int commitRows, boolean copy) throws IOException {
+        return copy && PgCopyRowWriter.isSupported(connection)
+                ? PgCopyRowWriter.create(connection, commitRows)
+                : new JdbcRowWriter(connection, batchSize, commitRows);
+    }
+}
@@ -0,0 +1,276 @@
+package com.company;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inserts the rows straight into the database with batched prepared statements.
+ * The batch is executed every batchSize rows and before the table or the column list changes,
+ * so rows reach the database in the order they are generated, after the rows they reference.
+ * Every id is written explicitly, restartSequence() moves the SERIAL sequences past them at the end.
+ * UPDATE statements are batched apart from the rows, each batch is executed before the other one is started.
+ * The transaction is committed every commitRows rows and by finish()
+ * */
+public class JdbcRowWriter extends RowWriter {
+    private final Connection connection;
+    private final int batchSize;
+    private final int commitRows;
+    private final boolean postgres;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private String table;
+    private String columns;
+    private PreparedStatement statement;
+    private Statement updates;
+    private int parameterIndex;
+    private int rowsInBatch = 0;
+    private int updatesInBatch = 0;
+    private int rowsSinceCommit = 0;
+
+    public JdbcRowWriter(Connection connection, int batchSize, int commitRows) throws IOException {
+        if (batchSize < 1 || commitRows < 1) {
+            throw new IllegalArgumentException("Batch size and commit rows must be positive");
+        }
+
+        this.connection = connection;
+        this.batchSize = batchSize;
+        this.commitRows = commitRows;
+
+        try {
+            connection.setAutoCommit(false);
+            postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public RowWriter begin(String table, String columns) throws IOException {
+        executeUpdates();
+
+        if (!(table.equals(this.table) && columns.equals(this.columns))) {
+            executeBatch();
+            statement = prepare(table, columns);
+            this.table = table;
+            this.columns = columns;
+        }
+
+        parameterIndex = 0;
+        return this;
+    }
+
+    @Override
+    public RowWriter value(int value) throws IOException {
+        try {
+            statement.setInt(++parameterIndex, value);
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        return this;
+    }
+
+    @Override
+    public RowWriter value(boolean value) throws IOException {
+        try {
+            statement.setBoolean(++parameterIndex, value);
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        return this;
+    }
+
+    @Override
+    public RowWriter value(double value) throws IOException {
+        try {
+            statement.setDouble(++parameterIndex, value);
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        return this;
+    }
+
+    @Override
+    public RowWriter text(String value) throws IOException {
+        try {
+            statement.setString(++parameterIndex, value);
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        return this;
+    }
+
+    @Override
+    public RowWriter text(String first, String second, String third) throws IOException {
+        return text(first + " " + second + " " + third);
+    }
+
+    @Override
+    public RowWriter date(long epochDay) throws IOException {
+        try {
+            statement.setObject(++parameterIndex, LocalDate.ofEpochDay(epochDay));
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        return this;
+    }
+
+    @Override
+    public void end() throws IOException {
+        try {
+            statement.addBatch();
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        rowsInBatch++;
+        rowsSinceCommit++;
+
+        if (rowsInBatch == batchSize) {
+            executeBatch();
+        }
+
+        if (rowsSinceCommit >= commitRows) {
+            commit();
+        }
+    }
+
+    /**
+     * setval on PostgreSQL, ALTER TABLE ... RESTART WITH on the others (H2, HSQLDB), which keep SERIAL as an identity column
+     * */
+    @Override
+    public void restartSequence(String table, String column, int lastValue) throws IOException {
+        executeBatch();
+        executeUpdates();
+
+        try (Statement restart = connection.createStatement()) {
+            restart.execute(postgres
+                    ? "SELECT setval(pg_get_serial_sequence('" + table + "', '" + column + "'), " + lastValue + ")"
+                    : "ALTER TABLE " + table + " ALTER COLUMN " + column + " RESTART WITH " + (lastValue + 1L));
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void update(String table, String assignments, String condition) throws IOException {
+        executeBatch();
+
+        try {
+            if (updates == null) {
+                updates = connection.createStatement();
+            }
+
+            updates.addBatch("UPDATE " + table + " SET " + assignments + " WHERE " + condition);
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        updatesInBatch++;
+        rowsSinceCommit++;
+
+        if (updatesInBatch == batchSize) {
+            executeUpdates();
+        }
+
+        if (rowsSinceCommit >= commitRows) {
+            commit();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        commit();
+
+        try {
+            for (PreparedStatement preparedStatement : statements.values()) {
+                preparedStatement.close();
+            }
+
+            if (updates != null) {
+                updates.close();
+                updates = null;
+            }
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        statements.clear();
+        table = null;
+        columns = null;
+        statement = null;
+    }
+
+    private PreparedStatement prepare(String table, String columns) throws IOException {
+        String key = table + " (" + columns + ")";
+        PreparedStatement prepared = statements.get(key);
+
+        if (prepared == null) {
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(key).append(" VALUES (?");
+
+            for (int i = columns.indexOf(','); i >= 0; i = columns.indexOf(',', i + 1)) {
+                sql.append(", ?");
+            }
+
+            try {
+                prepared = connection.prepareStatement(sql.append(')').toString());
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+
+            statements.put(key, prepared);
+        }
+
+        return prepared;
+    }
+
+    private void executeBatch() throws IOException {
+        if (rowsInBatch == 0) {
+            return;
+        }
+
+        try {
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        rowsInBatch = 0;
+    }
+
+    private void executeUpdates() throws IOException {
+        if (updatesInBatch == 0) {
+            return;
+        }
+
+        try {
+            updates.executeBatch();
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        updatesInBatch = 0;
+    }
+
+    private void commit() throws IOException {
+        executeBatch();
+        executeUpdates();
+
+        try {
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        rowsSinceCommit = 0;
+    }
+}
@@ -0,0 +1,255 @@
+package com.company;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Row counts and id ranges of every table, computed from the configuration before anything is written.
+ * Person ids follow the layout described at the top of TableSpecs:
+ * users, monsters, tortured souls, working souls, non distributed souls.
+ * Every row is written with its id and every reference is drawn from these ranges,
+ * so any table or chunk can be generated on its own and the foreign keys hold whatever was generated before
+ * */
+public class Layout {
+    public static final int DEFAULT_CHUNK_ROWS = 100_000;
+    /**
+     * NON-HANDLED, the users before it (DELETED, AUTO, UNAUTHORIZED) never handle anything
+     * */
+    private static final int FIRST_HANDLER_ID = 4;
+
+    private final double scaleFactor;
+    private final int chunkRows;
+    private final int usersCount = TableSpecs.users.length;
+    private final int monstersCount = TableSpecs.monsters.length;
+    private final int tartarLevelLocationsCount = TableSpecs.tartarLocations.length;
+    private final int locationsCount = TableSpecs.tartarLocations.length + TableSpecs.asphodelLocations.length + TableSpecs.elysiumLocations.length;
+    private final int torturesCount = TableSpecs.tortures.length;
+    private final int worksCount = TableSpecs.works.length;
+    private final int sinTypesCount = TableSpecs.sinTypes.length;
+    private final int torturedSoulsCount;
+    private final int workingSoulsCount;
+    private final int nonDistributedSoulsCount;
+    private final int distributedEventsCount;
+    private final int nonDistributedEventsCount;
+    private final int complaintsCount;
+    private final Distributions distributions;
+    private final Schema schema;
+    private final Map<String, TableSpec> tableSpecs;
+
+    /**
+     * scaleFactor multiplies the row counts of soul/person, _event, complaint, sin_type_distribution_list and work_list,
+     * dictionaries (users, levels, locations, monsters, tortures, works, sin types) are not scaled.
+     * The scalable tables are split into chunks of chunkRows rows, every chunk takes its own fork of the randomizer,
+     * so the output depends on the seed and chunkRows, but not on the number of threads
+     * */
+    public Layout(double scaleFactor, int chunkRows, Randomizer randomizer) {
+        this(scaleFactor, chunkRows, randomizer, "");
+    }
+
+    /**
+     * distributions configures the skew of the columns drawn at random, see Distributions
+     * */
+    public Layout(double scaleFactor, int chunkRows, Randomizer randomizer, String distributions) {
+        this(scaleFactor, chunkRows, randomizer, distributions, Schema.getDefault());
+    }
+
+    /**
+     * schema is the DDL the tables are generated for, every table of it needs its generators in TableSpecs
+     * */
+    public Layout(double scaleFactor, int chunkRows, Randomizer randomizer, String distributions, Schema schema) {
+        if (!(scaleFactor > 0)) {
+            throw new IllegalArgumentException("Scale factor must be positive: " + scaleFactor);
+        }
+
+        if (chunkRows < 1) {
+            throw new IllegalArgumentException("Chunk rows must be positive: " + chunkRows);
+        }
+
+        this.scaleFactor = scaleFactor;
+        this.chunkRows = chunkRows;
+        this.torturedSoulsCount = scale(TableSpecs.baseTorturedSoulsCount);
+        this.workingSoulsCount = scale(TableSpecs.baseWorkingSoulsCount);
+        this.nonDistributedSoulsCount = scale(TableSpecs.baseNonDistributedSoulsCount);
+        this.distributedEventsCount = scale(TableSpecs.baseDistributedEventsCount);
+        this.nonDistributedEventsCount = scale(TableSpecs.baseNonDistributedEventsCount);
+        this.complaintsCount = scale(randomizer.fork("layout", 0).getNumber(100, 500));
+
+        if ((long) getFirstNonDistributedSoulId() + nonDistributedSoulsCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Scale factor " + scaleFactor + " is too big");
+        }
+
+        this.distributions = Distributions.forLayout(this, randomizer, distributions);
+        this.schema = schema;
+        this.tableSpecs = TableSpecs.create(schema, this);
+    }
+
+    public double getScaleFactor() {
+        return scaleFactor;
+    }
+
+    public int getChunkRows() {
+        return chunkRows;
+    }
+
+    public int getUsersCount() {
+        return usersCount;
+    }
+
+    public int getMonstersCount() {
+        return monstersCount;
+    }
+
+    public int getTartarLevelLocationsCount() {
+        return tartarLevelLocationsCount;
+    }
+
+    public int getLocationsCount() {
+        return locationsCount;
+    }
+
+    public int getTorturesCount() {
+        return torturesCount;
+    }
+
+    public int getWorksCount() {
+        return worksCount;
+    }
+
+    public int getSinTypesCount() {
+        return sinTypesCount;
+    }
+
+    public int getTorturedSoulsCount() {
+        return torturedSoulsCount;
+    }
+
+    public int getWorkingSoulsCount() {
+        return workingSoulsCount;
+    }
+
+    public int getNonDistributedSoulsCount() {
+        return nonDistributedSoulsCount;
+    }
+
+    public int getSoulsCount() {
+        return torturedSoulsCount + workingSoulsCount + nonDistributedSoulsCount;
+    }
+
+    public int getDistributedEventsCount() {
+        return distributedEventsCount;
+    }
+
+    public int getEventsCount() {
+        return distributedEventsCount + nonDistributedEventsCount;
+    }
+
+    public int getComplaintsCount() {
+        return complaintsCount;
+    }
+
+    /**
+     * Rows written by Generator.generate()
+     * */
+    public long getRowsCount() {
+        long rows = 0;
+
+        for (TableSpec spec : tableSpecs.values()) {
+            rows += spec.getRowsCount();
+        }
+
+        return rows;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Specs of all the tables in load order
+     * */
+    public Collection<TableSpec> getTableSpecs() {
+        return Collections.unmodifiableCollection(tableSpecs.values());
+    }
+
+    public TableSpec getTableSpec(String table) {
+        TableSpec spec = tableSpecs.get(table);
+
+        if (spec == null) {
+            throw new IllegalArgumentException("Unknown table " + table + ", expected one of " + tableSpecs.keySet());
+        }
+
+        return spec;
+    }
+
+    /**
+     * Distribution of the values of a column drawn at random, e.g. getDistribution("soul", "handler_id")
+     * */
+    public Distribution getDistribution(String table, String column) {
+        return distributions.get(table, column);
+    }
+
+    /**
+     * Distributions.getSpec(), the skew of the columns drawn at random
+     * */
+    public String getDistributionSpec() {
+        return distributions.getSpec();
+    }
+
+    public int getFirstHandlerId() {
+        return FIRST_HANDLER_ID;
+    }
+
+    public int getLastUserId() {
+        return usersCount;
+    }
+
+    public int getFirstMonsterId() {
+        return usersCount + 1;
+    }
+
+    public int getLastMonsterId() {
+        return usersCount + monstersCount;
+    }
+
+    public int getFirstSoulId() {
+        return usersCount + monstersCount + 1;
+    }
+
+    public int getLastTorturedSoulId() {
+        return getFirstWorkingSoulId() - 1;
+    }
+
+    public int getFirstWorkingSoulId() {
+        return getFirstSoulId() + torturedSoulsCount;
+    }
+
+    public int getLastWorkingSoulId() {
+        return getFirstNonDistributedSoulId() - 1;
+    }
+
+    public int getFirstNonDistributedSoulId() {
+        return getFirstWorkingSoulId() + workingSoulsCount;
+    }
+
+    public int getLastPersonId() {
+        return getFirstNonDistributedSoulId() + nonDistributedSoulsCount - 1;
+    }
+
+    /**
+     * Events 1 .. getDistributedEventsCount() are distributed, the rest up to getEventsCount() are not
+     * */
+    public int getFirstNonDistributedEventId() {
+        return distributedEventsCount + 1;
+    }
+
+    private int scale(int baseCount) {
+        long scaled = Math.round(baseCount * scaleFactor);
+
+        if (scaled > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Scale factor " + scaleFactor + " is too big");
+        }
+
+        return (int) Math.max(1, scaled);
+    }
+}
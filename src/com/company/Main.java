@@ -1,16 +1,186 @@
 package com.company;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
 
 public class Main {
-    
+
+    /**
+     * --scale=N: scale factor of the generated dataset, 1 by default (about 3 000 souls and 2 000 events)
+     * --seed=N: seed of the randomizer, random by default; the same seed gives the same script
+     * --chunk-rows=N: rows per chunk of a scalable table, 100 000 by default, part of the data together with the seed
+     * --threads=N: generate in parallel into --output-dir (dmlScript by default) instead of dmlScript.sql, one file per chunk;
+     * --tables=soul,_event:0-3,...: only some of the tables of the schema and sequences, or some chunks of a table by their indexes,
+     * added to the chunks already in --output-dir; --resume: skip the chunks finished by an interrupted run
+     * --schema=FILE: DDL the tables are generated for, ddlCreation.sql by default; every table needs its generators in TableSpecs
+     * --distribution=handler_id=zipf:1.2,soul.torture_id=hotspot:80:20,_date=normal: skew of the columns drawn at random,
+     * uniform by default, see Distributions
+     * --format=insert|batch|copy|csv: INSERT per row (default), multi-row INSERT of --batch-size rows (1000 by default),
+     * COPY FROM stdin in the text or CSV format
+     * --compress=none|gzip: compress the files on the fly, e.g. into dmlScript.sql.gz
+     * --max-file-size=N: split the output into files of about N bytes before compression, --output-dir is used then
+     * --buffer-size=N: bytes of the direct buffer of each file, 1 MiB by default; the scripts are always written in UTF-8
+     * --jdbc-url=URL: load straight into the database instead, with --jdbc-user and --jdbc-password;
+     * COPY through PgJDBC when the driver is on the classpath (--jdbc-copy=false to disable), batched inserts otherwise,
+     * committed every --commit-rows rows (100 000 by default); --init-schema[=ddlCreation.sql] creates the tables first
+     * --progress=N: print the progress every N seconds, 10 by default, 0 to disable; it is also in JMX as com.company:type=Metrics
+     * --report=FILE: rows, bytes and time per table written as JSON at the end, report.json by default
+     * --state=FILE: last ids of the generated database written as properties at the end, for --append
+     * --append: add load to a loaded database instead, see IncrementalGenerator; the last ids are queried with --jdbc-url,
+     * otherwise read from --state (state.properties by default), which is updated after every round;
+     * --rounds=N rounds (1 by default, 0 to run until stopped) of the souls, events and complaints of --scale each,
+     * followed by --updates=N UPDATE statements (as many as the complaints by default), written into --output-dir
+     * as append-000000.sql, ...; --rate=N rows and updates per second, unlimited by default, with the batches of --jdbc-url
+     * cut to a tenth of a second of rows and committed every second
+     * */
     public static void main(String[] args) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter("dmlScript.sql"))) {
-            Generator generator = new Generator(writer);
-            generator.generate();
-            writer.flush();
+        Options options = new Options(args);
+        long seed = options.getLong("seed", new SplittableRandom().nextLong());
+        Randomizer randomizer = new Randomizer(seed);
+        Schema schema;
+
+        try {
+            schema = options.has("schema") ? Schema.read(Paths.get(options.getString("schema", null))) : Schema.getDefault();
         } catch (IOException e) {
             e.printStackTrace();
+            return;
+        }
+
+        Layout layout = new Layout(options.getDouble("scale", 1), options.getInt("chunk-rows", Layout.DEFAULT_CHUNK_ROWS), randomizer,
+                options.getString("distribution", ""), schema);
+        OutputFormat format = OutputFormat.of(options.getString("format", "insert"));
+        int batchSize = options.getInt("batch-size", 1000);
+        ScriptOutput output = new ScriptOutput(format, batchSize, Compression.of(options.getString("compress", "none")),
+                options.getInt("buffer-size", ScriptOutput.DEFAULT_BUFFER_SIZE), options.getLong("max-file-size", 0));
+        Path outputDirectory = Paths.get(options.getString("output-dir", "dmlScript"));
+        System.out.println("Seed: " + seed);
+        Metrics metrics = new Metrics("seed=" + seed + " " + String.join(" ", args));
+        metrics.register();
+        long progressSeconds = options.getLong("progress", 10);
+
+        if (progressSeconds > 0) {
+            metrics.startProgress(System.out, progressSeconds);
+        }
+
+        try {
+            if (options.has("append")) {
+                append(options, schema, randomizer, output, outputDirectory, metrics);
+            } else if (options.has("jdbc-url")) {
+                try (Connection connection = DriverManager.getConnection(options.getString("jdbc-url", null),
+                        options.getString("jdbc-user", null), options.getString("jdbc-password", null))) {
+                    JdbcLoader loader = new JdbcLoader(connection, layout, randomizer, batchSize,
+                            options.getInt("commit-rows", 100_000), Boolean.parseBoolean(options.getString("jdbc-copy", "true")));
+
+                    if (options.has("init-schema")) {
+                        String ddl = options.getString("init-schema", "true");
+                        loader.createTables(Paths.get(ddl.equals("true") ? options.getString("schema", Schema.DEFAULT_FILE) : ddl));
+                    }
+
+                    loader.load(metrics);
+                }
+            } else if (options.has("threads")) {
+                int threads = options.getInt("threads", Runtime.getRuntime().availableProcessors());
+                Set<String> tables = new HashSet<>();
+
+                if (options.has("tables")) {
+                    tables.addAll(Arrays.asList(options.getString("tables", "").split(",")));
+                }
+
+                new ParallelGenerator(layout, randomizer, outputDirectory, threads, output, tables, options.has("resume"), metrics).generate();
+            } else {
+                Path directory = output.isSplit() ? Files.createDirectories(outputDirectory) : Paths.get("");
+                metrics.plan(layout.getRowsCount());
+
+                try (ChunkedRowWriter files = output.create(directory, "dmlScript")) {
+                    RowWriter rows = new MeteredRowWriter(files, metrics);
+                    Generator generator = new Generator(rows, layout, randomizer, metrics);
+                    generator.generate();
+                    rows.finish();
+
+                    if (output.isSplit()) {
+                        output.writeManifest(directory, files.getFileNames());
+                    }
+                }
+            }
+
+            if (options.has("state") && !options.has("append")) {
+                DatabaseState.of(layout).write(Paths.get(options.getString("state", null)));
+            }
+
+            System.out.println(metrics.getProgress());
+            metrics.writeReport(Paths.get(options.getString("report", "report.json")));
+        } catch (IOException | SQLException e) {
+            e.printStackTrace();
+        } finally {
+            metrics.stopProgress();
+        }
+    }
+
+    private static void append(Options options, Schema schema, Randomizer randomizer, ScriptOutput output, Path outputDirectory,
+                               Metrics metrics) throws IOException, SQLException {
+        IncrementalGenerator generator = new IncrementalGenerator(schema, options.getDouble("scale", 1),
+                options.getInt("chunk-rows", Layout.DEFAULT_CHUNK_ROWS), options.getString("distribution", ""),
+                options.getInt("updates", -1), randomizer, metrics);
+        int rounds = options.getInt("rounds", 1);
+        double rate = options.getDouble("rate", 0);
+        Path stateFile = Paths.get(options.getString("state", DatabaseState.DEFAULT_FILE));
+
+        if (options.has("jdbc-url")) {
+            try (Connection connection = DriverManager.getConnection(options.getString("jdbc-url", null),
+                    options.getString("jdbc-user", null), options.getString("jdbc-password", null))) {
+                DatabaseState state = DatabaseState.query(connection);
+                int batchSize = options.getInt("batch-size", 1000);
+                int commitRows = options.getInt("commit-rows", 100_000);
+                boolean copy = Boolean.parseBoolean(options.getString("jdbc-copy", "true"));
+
+                // A limited rate reaches the database in batches of a tenth of a second of rows committed every second,
+                // COPY would hold the rows back in its buffer
+                if (rate > 0) {
+                    batchSize = (int) Math.max(1, Math.min(batchSize, rate / 10));
+                    commitRows = (int) Math.max(1, Math.min(commitRows, rate));
+                    copy = false;
+                }
+
+                for (int round = 0; rounds == 0 || round < rounds; round++) {
+                    RowWriter rows = limit(new MeteredRowWriter(JdbcLoader.createWriter(connection, batchSize, commitRows, copy), metrics), rate);
+
+                    try {
+                        state = generator.append(rows, state);
+                    } finally {
+                        rows.finish();
+                    }
+
+                    if (options.has("state")) {
+                        state.write(stateFile);
+                    }
+                }
+            }
+        } else {
+            DatabaseState state = DatabaseState.read(stateFile);
+            Files.createDirectories(outputDirectory);
+
+            for (int round = 0; rounds == 0 || round < rounds; round++) {
+                try (ChunkedRowWriter files = output.create(outputDirectory, String.format("append-%06d", state.getRound()))) {
+                    RowWriter rows = limit(new MeteredRowWriter(files, metrics), rate);
+                    state = generator.append(rows, state);
+                    rows.finish();
+                }
+
+                state.write(stateFile);
+            }
         }
     }
+
+    private static RowWriter limit(RowWriter rows, double rowsPerSecond) {
+        return rowsPerSecond > 0 ? new RateLimitedRowWriter(rows, rowsPerSecond) : rows;
+    }
 }
@@ -0,0 +1,113 @@
+package com.company;
+
+import java.io.IOException;
+
+/**
+ * Counts the rows of every table into the metrics,
+ * the statements restarting the sequences go to the "sequences" table.
+ * The bytes of a ChunkedRowWriter are counted when the table changes and at the end,
+ * as the text is encoded in blocks and not row by row
+ * */
+public class MeteredRowWriter extends RowWriter {
+    private final RowWriter rows;
+    private final ChunkedRowWriter files;
+    private final Metrics metrics;
+    private String table;
+    private Metrics.TableCounters counters;
+    private long countedBytes = 0;
+
+    public MeteredRowWriter(RowWriter rows, Metrics metrics) {
+        this.rows = rows;
+        this.files = rows instanceof ChunkedRowWriter ? (ChunkedRowWriter) rows : null;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public RowWriter begin(String table, String columns) throws IOException {
+        switchTable(table);
+        rows.begin(table, columns);
+        return this;
+    }
+
+    @Override
+    public RowWriter value(int value) throws IOException {
+        rows.value(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter value(boolean value) throws IOException {
+        rows.value(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter value(double value) throws IOException {
+        rows.value(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter text(String value) throws IOException {
+        rows.text(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter text(String first, String second, String third) throws IOException {
+        rows.text(first, second, third);
+        return this;
+    }
+
+    @Override
+    public RowWriter date(long epochDay) throws IOException {
+        rows.date(epochDay);
+        return this;
+    }
+
+    @Override
+    public void end() throws IOException {
+        rows.end();
+        counters.rows.increment();
+    }
+
+    @Override
+    public void restartSequence(String table, String column, int lastValue) throws IOException {
+        switchTable("sequences");
+        rows.restartSequence(table, column, lastValue);
+    }
+
+    /**
+     * Counted as a row of the table
+     * */
+    @Override
+    public void update(String table, String assignments, String condition) throws IOException {
+        switchTable(table);
+        rows.update(table, assignments, condition);
+        counters.rows.increment();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        rows.finish();
+        countBytes();
+    }
+
+    private void switchTable(String table) throws IOException {
+        if (!table.equals(this.table)) {
+            countBytes();
+            this.table = table;
+            counters = metrics.getTable(table);
+        }
+    }
+
+    private void countBytes() throws IOException {
+        if (files == null || counters == null) {
+            return;
+        }
+
+        long bytes = files.getBytesWritten();
+        counters.bytes.add(bytes - countedBytes);
+        countedBytes = bytes;
+    }
+}
@@ -0,0 +1,215 @@
+package com.company;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rows and bytes per table and time per phase of one run, shared by all the threads.
+ * Rows are counted by MeteredRowWriter, phases are timed by Generator
+ * */
+public class Metrics implements MetricsMXBean {
+    private static final String OBJECT_NAME = "com.company:type=Metrics";
+
+    private final String settings;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong plannedRows = new AtomicLong();
+    private final ConcurrentMap<String, TableCounters> tables = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> phaseNanos = new ConcurrentHashMap<>();
+    private ScheduledExecutorService progress;
+
+    /**
+     * settings describe the run in the report, e.g. the seed, scale factor and format
+     * */
+    public Metrics(String settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Adds rows that are going to be written, the ETA is computed from them
+     * */
+    public void plan(long rows) {
+        plannedRows.addAndGet(rows);
+    }
+
+    TableCounters getTable(String table) {
+        return tables.computeIfAbsent(table, name -> new TableCounters());
+    }
+
+    public void addPhaseTime(String phase, long nanos) {
+        phaseNanos.computeIfAbsent(phase, name -> new LongAdder()).add(nanos);
+    }
+
+    @Override
+    public long getRows() {
+        long rows = 0;
+
+        for (TableCounters counters : tables.values()) {
+            rows += counters.rows.sum();
+        }
+
+        return rows;
+    }
+
+    @Override
+    public long getPlannedRows() {
+        return plannedRows.get();
+    }
+
+    @Override
+    public long getBytes() {
+        long bytes = 0;
+
+        for (TableCounters counters : tables.values()) {
+            bytes += counters.bytes.sum();
+        }
+
+        return bytes;
+    }
+
+    @Override
+    public double getElapsedSeconds() {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    @Override
+    public double getRowsPerSecond() {
+        double seconds = getElapsedSeconds();
+        return seconds > 0 ? getRows() / seconds : 0;
+    }
+
+    @Override
+    public double getEtaSeconds() {
+        double rate = getRowsPerSecond();
+        return rate > 0 ? Math.max(0, getPlannedRows() - getRows()) / rate : -1;
+    }
+
+    @Override
+    public Map<String, Long> getRowsByTable() {
+        Map<String, Long> rows = new TreeMap<>();
+        tables.forEach((table, counters) -> rows.put(table, counters.rows.sum()));
+        return rows;
+    }
+
+    @Override
+    public Map<String, Long> getBytesByTable() {
+        Map<String, Long> bytes = new TreeMap<>();
+        tables.forEach((table, counters) -> bytes.put(table, counters.bytes.sum()));
+        return bytes;
+    }
+
+    @Override
+    public Map<String, Double> getPhaseSeconds() {
+        Map<String, Double> seconds = new TreeMap<>();
+        phaseNanos.forEach((phase, nanos) -> seconds.put(phase, nanos.sum() / 1e9));
+        return seconds;
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server, replacing the ones of an earlier run in the same JVM
+     * */
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Can not register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Prints getProgress() every periodSeconds on a daemon thread until stopProgress()
+     * */
+    public synchronized void startProgress(PrintStream out, long periodSeconds) {
+        stopProgress();
+        progress = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        progress.scheduleAtFixedRate(() -> out.println(getProgress()), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public synchronized void stopProgress() {
+        if (progress != null) {
+            progress.shutdownNow();
+            progress = null;
+        }
+    }
+
+    /**
+     * e.g. Progress: 41.3% 1234567/2990000 rows, 118.2 MB, 2104332 rows/s, ETA 0:00:08
+     * */
+    public String getProgress() {
+        long rows = getRows();
+        long planned = getPlannedRows();
+        double eta = getEtaSeconds();
+        return String.format(Locale.ROOT, "Progress: %.1f%% %d/%d rows, %.1f MB, %.0f rows/s, ETA %s",
+                planned > 0 ? 100.0 * rows / planned : 0, rows, planned, getBytes() / 1e6, getRowsPerSecond(),
+                eta < 0 ? "unknown" : formatDuration((long) Math.ceil(eta)));
+    }
+
+    public void writeReport(Path file) throws IOException {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"settings\": ").append(quote(settings)).append(",\n");
+        json.append(String.format(Locale.ROOT, "  \"elapsedSeconds\": %.3f,\n", getElapsedSeconds()));
+        json.append("  \"rows\": ").append(getRows()).append(",\n");
+        json.append("  \"plannedRows\": ").append(getPlannedRows()).append(",\n");
+        json.append("  \"bytes\": ").append(getBytes()).append(",\n");
+        json.append(String.format(Locale.ROOT, "  \"rowsPerSecond\": %.1f,\n", getRowsPerSecond()));
+        json.append("  \"tables\": {");
+        String separator = "\n";
+
+        for (Map.Entry<String, Long> entry : getRowsByTable().entrySet()) {
+            json.append(separator).append("    ").append(quote(entry.getKey())).append(": {\"rows\": ").append(entry.getValue())
+                    .append(", \"bytes\": ").append(getTable(entry.getKey()).bytes.sum()).append('}');
+            separator = ",\n";
+        }
+
+        json.append("\n  },\n  \"phaseSeconds\": {");
+        separator = "\n";
+
+        for (Map.Entry<String, Double> entry : getPhaseSeconds().entrySet()) {
+            json.append(separator).append("    ").append(quote(entry.getKey())).append(String.format(Locale.ROOT, ": %.6f", entry.getValue()));
+            separator = ",\n";
+        }
+
+        json.append("\n  }\n}\n");
+        Files.write(file, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String formatDuration(long seconds) {
+        return String.format(Locale.ROOT, "%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+    }
+
+    static String quote(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    static class TableCounters {
+        final LongAdder rows = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+    }
+}
@@ -0,0 +1,35 @@
+package com.company;
+
+import java.util.Map;
+
+/**
+ * Progress of the generation in JMX, registered as com.company:type=Metrics
+ * */
+public interface MetricsMXBean {
+    long getRows();
+
+    long getPlannedRows();
+
+    /**
+     * Bytes of the scripts before compression, 0 when loading over JDBC
+     * */
+    long getBytes();
+
+    double getElapsedSeconds();
+
+    double getRowsPerSecond();
+
+    /**
+     * Seconds left at the average rate so far, -1 until the first rows are written
+     * */
+    double getEtaSeconds();
+
+    Map<String, Long> getRowsByTable();
+
+    Map<String, Long> getBytesByTable();
+
+    /**
+     * Time spent in every phase, summed over the threads
+     * */
+    Map<String, Double> getPhaseSeconds();
+}
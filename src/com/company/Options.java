@@ -0,0 +1,65 @@
+package com.company;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * --name=value arguments, a bare --name is "true". The numeric options take their default for a bare --name
+ * */
+public class Options {
+    private final Map<String, String> values = new HashMap<>();
+
+    public Options(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+
+            int separator = arg.indexOf('=');
+
+            if (separator < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+    }
+
+    public boolean has(String name) {
+        return values.containsKey(name);
+    }
+
+    public String getString(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    public double getDouble(String name, double defaultValue) {
+        String value = values.get(name);
+
+        try {
+            return value == null || value.equals("true") ? defaultValue : Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid --" + name + ": " + value, e);
+        }
+    }
+
+    public int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+
+        try {
+            return value == null || value.equals("true") ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid --" + name + ": " + value, e);
+        }
+    }
+
+    public long getLong(String name, long defaultValue) {
+        String value = values.get(name);
+
+        try {
+            return value == null || value.equals("true") ? defaultValue : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid --" + name + ": " + value, e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.company;
+
+import java.io.Writer;
+import java.util.Locale;
+
+public enum OutputFormat {
+    /**
+     * INSERT statement per row, the slowest to load
+     * */
+    INSERT,
+    /**
+     * Multi-row INSERT statements of up to batchSize rows
+     * */
+    BATCH,
+    /**
+     * COPY FROM stdin in the text format, the fastest to load with psql
+     * */
+    COPY,
+    /**
+     * COPY FROM stdin in the CSV format
+     * */
+    CSV;
+
+    public RowWriter create(Writer writer, int batchSize) {
+        switch (this) {
+            case BATCH:
+                return new BatchInsertRowWriter(writer, batchSize);
+            case COPY:
+                return new CopyRowWriter(writer);
+            case CSV:
+                return new CsvRowWriter(writer);
+            default:
+                return new InsertRowWriter(writer);
+        }
+    }
+
+    public static OutputFormat of(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
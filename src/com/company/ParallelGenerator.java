@@ -0,0 +1,247 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Splits the tables into the chunks of the layout and generates them on a thread pool,
+ * each chunk into its own file, or into several files when they are split by size. The files are the same for any number of threads.
+ * manifest.sql includes the files in load order, run it with psql -f. Every row is written with its id,
+ * so only the tables have to be loaded in that order, for the foreign keys, not the chunks of a table.
+ * Finished chunks are recorded in the checkpoint, an interrupted run can be resumed with the same settings.
+ * A run of some tables or chunks adds them to the chunks already in the directory, and the manifest lists all of them
+ * */
+public class ParallelGenerator {
+    /**
+     * Pseudo table of the statements restarting the sequences, generated after all the others
+     * */
+    public static final String SEQUENCES = "sequences";
+
+    private final Layout layout;
+    private final Randomizer randomizer;
+    private final Path outputDirectory;
+    private final int threads;
+    private final ScriptOutput output;
+    private final Map<String, List<int[]>> selection = new HashMap<>();
+    private final boolean resume;
+    private final Metrics metrics;
+
+    /**
+     * tables limits the generation to some of the tables of the layout and SEQUENCES, all of them are generated when it is empty.
+     * An entry table:first-last or table:index selects some chunks of the table by their indexes, both ends included
+     * */
+    public ParallelGenerator(Layout layout, Randomizer randomizer, Path outputDirectory, int threads, ScriptOutput output,
+                             Set<String> tables, boolean resume) {
+        this(layout, randomizer, outputDirectory, threads, output, tables, resume, null);
+    }
+
+    /**
+     * Counts the rows of the chunks that are not finished yet into metrics, metrics may be null
+     * */
+    public ParallelGenerator(Layout layout, Randomizer randomizer, Path outputDirectory, int threads, ScriptOutput output,
+                             Set<String> tables, boolean resume, Metrics metrics) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be positive: " + threads);
+        }
+
+        for (String entry : tables) {
+            int separator = entry.indexOf(':');
+            String table = separator < 0 ? entry : entry.substring(0, separator);
+
+            if (!table.equals(SEQUENCES)) {
+                layout.getTableSpec(table);
+            }
+
+            selection.computeIfAbsent(table, name -> new ArrayList<>())
+                    .add(separator < 0 ? new int[]{0, Integer.MAX_VALUE} : parseRange(entry.substring(separator + 1)));
+        }
+
+        this.layout = layout;
+        this.randomizer = randomizer;
+        this.outputDirectory = outputDirectory;
+        this.threads = threads;
+        this.output = output;
+        this.resume = resume;
+        this.metrics = metrics;
+    }
+
+    public void generate() throws IOException {
+        Files.createDirectories(outputDirectory);
+        List<Chunk> chunks = plan();
+        Checkpoint checkpoint = Checkpoint.open(outputDirectory, getSettings(), resume);
+        List<String> fileNames = new ArrayList<>();
+        List<Chunk> selected = new ArrayList<>();
+
+        for (Chunk chunk : chunks) {
+            if (isSelected(chunk)) {
+                selected.add(chunk);
+            }
+        }
+
+        if (!resume) {
+            List<String> names = new ArrayList<>();
+
+            for (Chunk chunk : selected) {
+                names.add(chunk.name);
+            }
+
+            checkpoint.forget(names);
+        }
+
+        if (metrics != null) {
+            for (Chunk chunk : selected) {
+                if (checkpoint.getFileNames(chunk.name) == null) {
+                    metrics.plan(chunk.to - chunk.from);
+                }
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+
+            for (Chunk chunk : chunks) {
+                List<String> finished = checkpoint.getFileNames(chunk.name);
+
+                // The chunks that are neither selected nor generated before are left out of the manifest
+                if (finished != null) {
+                    futures.add(CompletableFuture.completedFuture(finished));
+                } else if (isSelected(chunk)) {
+                    futures.add(executor.submit(() -> {
+                        List<String> written = write(chunk);
+                        checkpoint.finish(chunk.name, written);
+                        return written;
+                    }));
+                }
+            }
+
+            for (Future<List<String>> future : futures) {
+                fileNames.addAll(future.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Generation was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        output.writeManifest(outputDirectory, fileNames);
+    }
+
+    /**
+     * Chunks of every table in load order, selected or not, named after the position of the table, e.g. 06-soul-000003
+     * */
+    private List<Chunk> plan() {
+        List<Chunk> chunks = new ArrayList<>();
+        int position = 0;
+
+        for (TableSpec spec : layout.getTableSpecs()) {
+            String prefix = String.format("%02d-%s", position++, spec.getName());
+            int chunkRows = layout.getChunkRows();
+
+            for (int from = 0, index = 0; from < spec.getRowsCount(); from += chunkRows, index++) {
+                int to = (int) Math.min((long) from + chunkRows, spec.getRowsCount());
+                chunks.add(new Chunk(String.format("%s-%06d", prefix, index), spec.getName(), index, from, to));
+            }
+        }
+
+        chunks.add(new Chunk(String.format("%02d-%s", position, SEQUENCES), SEQUENCES, 0, 0, 0));
+        return chunks;
+    }
+
+    private boolean isSelected(Chunk chunk) {
+        if (selection.isEmpty()) {
+            return true;
+        }
+
+        for (int[] range : selection.getOrDefault(chunk.table, Collections.emptyList())) {
+            if (chunk.index >= range[0] && chunk.index <= range[1]) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * first-last or a single index
+     * */
+    private static int[] parseRange(String range) {
+        int separator = range.indexOf('-');
+
+        try {
+            int first = Integer.parseInt(separator < 0 ? range : range.substring(0, separator));
+            int last = separator < 0 ? first : Integer.parseInt(range.substring(separator + 1));
+
+            if (first >= 0 && first <= last) {
+                return new int[]{first, last};
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+
+        throw new IllegalArgumentException("Expected chunks as first-last or an index: " + range);
+    }
+
+    /**
+     * Everything the output depends on, a checkpoint can be resumed only with the same settings.
+     * The tables are left out, they only select the chunks and a chunk is the same whichever chunks are generated with it
+     * */
+    private String getSettings() {
+        return "seed=" + randomizer.getSeed() + " scale=" + layout.getScaleFactor() + " chunk-rows=" + layout.getChunkRows()
+                + " format=" + output.getFormat() + " batch-size=" + output.getBatchSize()
+                + " compress=" + output.getCompression() + " max-file-size=" + output.getMaxFileSize()
+                + " distribution=" + layout.getDistributionSpec() + " schema=" + layout.getSchema().getDigest();
+    }
+
+    private List<String> write(Chunk chunk) throws IOException {
+        try (ChunkedRowWriter files = output.create(outputDirectory, chunk.name)) {
+            RowWriter rows = metrics != null ? new MeteredRowWriter(files, metrics) : files;
+            Generator generator = new Generator(rows, layout, randomizer, metrics);
+
+            if (chunk.table.equals(SEQUENCES)) {
+                generator.generateSequences();
+            } else {
+                generator.generate(chunk.table, chunk.from, chunk.to);
+            }
+
+            rows.finish();
+            return files.getFileNames();
+        }
+    }
+
+    private static class Chunk {
+        private final String name;
+        private final String table;
+        private final int index;
+        private final int from;
+        private final int to;
+
+        private Chunk(String name, String table, int index, int from, int to) {
+            this.name = name;
+            this.table = table;
+            this.index = index;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.company;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Streams the COPY text format straight into PostgreSQL through the CopyManager of PgJDBC.
+ * The driver is reached by reflection, so it is needed only at runtime and only for this writer.
+ * The transaction is committed every commitRows rows, between COPY blocks
+ * */
+public class PgCopyRowWriter extends CopyRowWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Connection connection;
+    private final CopyStream stream;
+    private final int commitRows;
+    private int rowsSinceCommit = 0;
+
+    private PgCopyRowWriter(Connection connection, CopyStream stream, int commitRows) {
+        super(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE));
+        this.connection = connection;
+        this.stream = stream;
+        this.commitRows = commitRows;
+    }
+
+    /**
+     * Checks whether the connection is opened by PgJDBC, so COPY can be used
+     * */
+    public static boolean isSupported(Connection connection) {
+        try {
+            return connection.isWrapperFor(Class.forName("org.postgresql.PGConnection"));
+        } catch (ClassNotFoundException | SQLException e) {
+            return false;
+        }
+    }
+
+    public static PgCopyRowWriter create(Connection connection, int commitRows) throws IOException {
+        if (commitRows < 1) {
+            throw new IllegalArgumentException("Commit rows must be positive: " + commitRows);
+        }
+
+        try {
+            Class<?> pgConnection = Class.forName("org.postgresql.PGConnection");
+            Class<?> copyManager = Class.forName("org.postgresql.copy.CopyManager");
+            Class<?> copyIn = Class.forName("org.postgresql.copy.CopyIn");
+            Object manager = pgConnection.getMethod("getCopyAPI").invoke(connection.unwrap(pgConnection));
+            CopyStream stream = new CopyStream(manager,
+                    copyManager.getMethod("copyIn", String.class),
+                    copyIn.getMethod("writeToCopy", byte[].class, int.class, int.class),
+                    copyIn.getMethod("endCopy"));
+
+            connection.setAutoCommit(false);
+            return new PgCopyRowWriter(connection, stream, commitRows);
+        } catch (ReflectiveOperationException | SQLException e) {
+            throw new IOException("PgJDBC CopyManager is not available", e);
+        }
+    }
+
+    @Override
+    protected void beginRow(String table, String columns) throws IOException {
+        if (rowsSinceCommit >= commitRows) {
+            commit();
+        }
+
+        super.beginRow(table, columns);
+    }
+
+    @Override
+    protected void endRow() {
+        super.endRow();
+        rowsSinceCommit++;
+    }
+
+    @Override
+    protected void startCopy(String table, String columns) throws IOException {
+        stream.start("COPY " + table + " (" + columns + ") FROM STDIN");
+    }
+
+    @Override
+    protected void endCopy() throws IOException {
+        writer.flush();
+        stream.end();
+    }
+
+    @Override
+    public void restartSequence(String table, String column, int lastValue) throws IOException {
+        finishStatement();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', '" + column + "'), " + lastValue + ")");
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void update(String table, String assignments, String condition) throws IOException {
+        if (rowsSinceCommit >= commitRows) {
+            commit();
+        }
+
+        finishStatement();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE " + table + " SET " + assignments + " WHERE " + condition);
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        rowsSinceCommit++;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        super.finish();
+        commit();
+    }
+
+    private void commit() throws IOException {
+        finishStatement();
+
+        try {
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        rowsSinceCommit = 0;
+    }
+
+    /**
+     * Passes the encoded rows to the CopyIn operation in progress
+     * */
+    private static class CopyStream extends OutputStream {
+        private final Object manager;
+        private final Method copyIn;
+        private final Method writeToCopy;
+        private final Method endCopy;
+        private Object operation;
+
+        CopyStream(Object manager, Method copyIn, Method writeToCopy, Method endCopy) {
+            this.manager = manager;
+            this.copyIn = copyIn;
+            this.writeToCopy = writeToCopy;
+            this.endCopy = endCopy;
+        }
+
+        void start(String sql) throws IOException {
+            operation = invoke(copyIn, manager, sql);
+        }
+
+        void end() throws IOException {
+            invoke(endCopy, operation);
+            operation = null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (operation == null) {
+                throw new IOException("No COPY in progress");
+            }
+
+            invoke(writeToCopy, operation, bytes, offset, length);
+        }
+
+        private static Object invoke(Method method, Object target, Object... arguments) throws IOException {
+            try {
+                return method.invoke(target, arguments);
+            } catch (InvocationTargetException e) {
+                throw new IOException(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+}
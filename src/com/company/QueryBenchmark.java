@@ -0,0 +1,396 @@
+package com.company;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the queries of a QueryWorkload against a loaded database with no indexes, with each index alone and with all of them,
+ * by concurrent clients on their own connections, and reports the latency percentiles and throughput of every query.
+ * The clients run on virtual threads when the JVM has them (Java 21+), on a fixed pool of platform threads otherwise.
+ * Every query is executed warmup times before it is measured and every row of its result is read
+ * */
+public class QueryBenchmark {
+    /**
+     * OPTIMIZE_REUSE_RESULTS=FALSE, otherwise H2 returns the cached result of a query repeated on unchanged tables
+     * */
+    public static final String DEFAULT_URL = "jdbc:h2:mem:hell;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;OPTIMIZE_REUSE_RESULTS=FALSE";
+    private static final String NO_INDEXES = "none";
+    private static final String ALL_INDEXES = "all";
+
+    private final Connection connection;
+    private final String url;
+    private final String user;
+    private final String password;
+    private final QueryWorkload workload;
+    private final int clients;
+    private final int warmup;
+    private final int iterations;
+    private final boolean postgres;
+    private String threads = "platform";
+
+    /**
+     * connection creates and drops the indexes, every client opens its own connection to url.
+     * Each client executes every query iterations times
+     * */
+    public QueryBenchmark(Connection connection, String url, String user, String password, QueryWorkload workload,
+                          int clients, int warmup, int iterations) throws SQLException {
+        if (clients < 1 || iterations < 1 || warmup < 0) {
+            throw new IllegalArgumentException("Clients and iterations must be positive, warmup must not be negative: "
+                    + clients + ", " + iterations + ", " + warmup);
+        }
+
+        this.connection = connection;
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.workload = workload;
+        this.clients = clients;
+        this.warmup = warmup;
+        this.iterations = iterations;
+        this.postgres = connection.getMetaData().getDatabaseProductName().equals("PostgreSQL");
+    }
+
+    /**
+     * --jdbc-url=URL: database to benchmark, an in-memory H2 database by default (H2 has to be on the classpath),
+     * with --jdbc-user and --jdbc-password
+     * --init-schema[=ddlCreation.sql]: create the tables and views first, the default for the in-memory database
+     * --load=false: benchmark the rows already in the database instead of loading a generated dataset
+     * of --scale, --seed, --chunk-rows and --distribution as Main does
+     * --queries=FILE: the queries and indexes, indexEffectivityExplaning.sql by default
+     * --clients=N: concurrent clients, 4 by default; --warmup=N and --iterations=N executions of every query per client,
+     * 10 and 20 by default
+     * --report=FILE: the results as JSON, query-benchmark.json by default
+     * */
+    public static void main(String[] args) {
+        Options options = new Options(args);
+        long seed = options.getLong("seed", new SplittableRandom().nextLong());
+        String url = options.getString("jdbc-url", DEFAULT_URL);
+        String user = options.getString("jdbc-user", null);
+        String password = options.getString("jdbc-password", null);
+        System.out.println("Seed: " + seed);
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            Randomizer randomizer = new Randomizer(seed);
+            Schema schema = options.has("schema") ? Schema.read(Paths.get(options.getString("schema", null))) : Schema.getDefault();
+            Layout layout = new Layout(options.getDouble("scale", 1), options.getInt("chunk-rows", Layout.DEFAULT_CHUNK_ROWS),
+                    randomizer, options.getString("distribution", ""), schema);
+            JdbcLoader loader = new JdbcLoader(connection, layout, randomizer, options.getInt("batch-size", 1000),
+                    options.getInt("commit-rows", 100_000), Boolean.parseBoolean(options.getString("jdbc-copy", "true")));
+
+            if (options.has("init-schema") || !options.has("jdbc-url")) {
+                String ddl = options.getString("init-schema", "true");
+                Path file = Paths.get(ddl.equals("true") ? options.getString("schema", Schema.DEFAULT_FILE) : ddl);
+                loader.createTables(file);
+                loader.createViews(file);
+            }
+
+            if (Boolean.parseBoolean(options.getString("load", "true"))) {
+                long start = System.nanoTime();
+                loader.load();
+                System.out.printf(Locale.ROOT, "Loaded %d rows in %.1f s%n", layout.getRowsCount(), (System.nanoTime() - start) / 1e9);
+            }
+
+            QueryWorkload workload = QueryWorkload.read(Paths.get(options.getString("queries", QueryWorkload.DEFAULT_FILE)));
+            QueryBenchmark benchmark = new QueryBenchmark(connection, url, user, password, workload, options.getInt("clients", 4),
+                    options.getInt("warmup", 10), options.getInt("iterations", 20));
+            List<Result> results = benchmark.run(System.out);
+            benchmark.writeReport(Paths.get(options.getString("report", "query-benchmark.json")),
+                    "seed=" + seed + " " + String.join(" ", args), results);
+        } catch (IOException | SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Measures every query with no indexes, with each index of the workload alone, then with all of them,
+     * printing a line per result to out
+     * */
+    public List<Result> run(PrintStream out) throws SQLException {
+        List<Result> results = new ArrayList<>();
+        List<QueryWorkload.Index> indexes = workload.getIndexes();
+        List<Connection> connections = new ArrayList<>();
+        ExecutorService executor = newExecutor();
+
+        try {
+            for (int i = 0; i < clients; i++) {
+                connections.add(openClient());
+            }
+
+            analyze();
+            run(NO_INDEXES, Collections.emptyList(), connections, executor, results, out);
+
+            for (QueryWorkload.Index index : indexes) {
+                run(index.getName(), Collections.singletonList(index), connections, executor, results, out);
+            }
+
+            if (indexes.size() > 1) {
+                run(ALL_INDEXES, indexes, connections, executor, results, out);
+            }
+        } finally {
+            executor.shutdownNow();
+
+            for (Connection client : connections) {
+                client.close();
+            }
+        }
+
+        return results;
+    }
+
+    public void writeReport(Path file, String settings, List<Result> results) throws IOException, SQLException {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"settings\": ").append(Metrics.quote(settings)).append(",\n");
+        json.append("  \"database\": ").append(Metrics.quote(connection.getMetaData().getDatabaseProductName() + " "
+                + connection.getMetaData().getDatabaseProductVersion())).append(",\n");
+        json.append("  \"threads\": ").append(Metrics.quote(threads)).append(",\n");
+        json.append("  \"clients\": ").append(clients).append(",\n");
+        json.append("  \"warmup\": ").append(warmup).append(",\n");
+        json.append("  \"iterations\": ").append(iterations).append(",\n");
+        json.append("  \"results\": [");
+        String separator = "\n";
+
+        for (Result result : results) {
+            json.append(separator).append("    {\"indexes\": ").append(Metrics.quote(result.indexes))
+                    .append(", \"query\": ").append(Metrics.quote(result.query))
+                    .append(", \"executions\": ").append(result.latencyNanos.length)
+                    .append(String.format(Locale.ROOT, ", \"p50Ms\": %.3f, \"p99Ms\": %.3f, \"maxMs\": %.3f, \"meanMs\": %.3f",
+                            result.getPercentileMillis(50), result.getPercentileMillis(99), result.getPercentileMillis(100),
+                            result.getMeanMillis()))
+                    .append(String.format(Locale.ROOT, ", \"queriesPerSecond\": %.1f}", result.getQueriesPerSecond()));
+            separator = ",\n";
+        }
+
+        json.append("\n  ]\n}\n");
+        Files.write(file, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void run(String name, List<QueryWorkload.Index> indexes, List<Connection> connections, ExecutorService executor,
+                     List<Result> results, PrintStream out) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (QueryWorkload.Index index : indexes) {
+                statement.execute(index.getCreateSql(postgres));
+            }
+
+            commit();
+
+            for (String query : workload.getQueries()) {
+                Result result = measure(name, query, connections, executor);
+                results.add(result);
+                out.println(result);
+            }
+        } finally {
+            try (Statement statement = connection.createStatement()) {
+                for (QueryWorkload.Index index : indexes) {
+                    statement.execute(index.getDropSql());
+                }
+            }
+
+            commit();
+        }
+    }
+
+    private Result measure(String indexes, String query, List<Connection> connections, ExecutorService executor) throws SQLException {
+        CountDownLatch ready = new CountDownLatch(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        long[] latencyNanos = new long[clients * iterations];
+        long startNanos;
+
+        for (Connection client : connections) {
+            futures.add(executor.submit(new Client(client, query, ready, start)));
+        }
+
+        try {
+            ready.await();
+            startNanos = System.nanoTime();
+            start.countDown();
+
+            for (int i = 0; i < futures.size(); i++) {
+                System.arraycopy(futures.get(i).get(), 0, latencyNanos, i * iterations, iterations);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while running " + query, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+
+        return new Result(indexes, query, latencyNanos, System.nanoTime() - startNanos);
+    }
+
+    private Connection openClient() throws SQLException {
+        Connection client = DriverManager.getConnection(url, user, password);
+
+        // The planner settings of the script, e.g. enable_hashjoin, exist only in PostgreSQL
+        if (postgres) {
+            try (Statement statement = client.createStatement()) {
+                for (String setting : workload.getSettings()) {
+                    statement.execute(setting);
+                }
+            }
+        }
+
+        return client;
+    }
+
+    /**
+     * Gathers the statistics of the loaded tables for the planner, ANALYZE is the same command in PostgreSQL and H2
+     * */
+    private void analyze() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+
+        commit();
+    }
+
+    private void commit() throws SQLException {
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() is called by reflection, the sources stay on Java 11.
+     * Records in threads (virtual or platform) which executor it got, for the report
+     * */
+    private ExecutorService newExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            threads = "virtual";
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            threads = "platform";
+            return Executors.newFixedThreadPool(clients);
+        }
+    }
+
+    /**
+     * Executes the query warmup times, counts down ready and waits for start, then executes it iterations times
+     * and returns the latency of every execution
+     * */
+    private class Client implements Callable<long[]> {
+        private final Connection connection;
+        private final String query;
+        private final CountDownLatch ready;
+        private final CountDownLatch start;
+
+        Client(Connection connection, String query, CountDownLatch ready, CountDownLatch start) {
+            this.connection = connection;
+            this.query = query;
+            this.ready = ready;
+            this.start = start;
+        }
+
+        @Override
+        public long[] call() throws SQLException, InterruptedException {
+            long[] latencyNanos = new long[iterations];
+
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                for (int i = 0; i < warmup; i++) {
+                    execute(statement);
+                }
+
+                ready.countDown();
+                start.await();
+
+                for (int i = 0; i < iterations; i++) {
+                    long startNanos = System.nanoTime();
+                    execute(statement);
+                    latencyNanos[i] = System.nanoTime() - startNanos;
+                }
+            }
+
+            return latencyNanos;
+        }
+
+        private void execute(PreparedStatement statement) throws SQLException {
+            try (ResultSet result = statement.executeQuery()) {
+                int columns = result.getMetaData().getColumnCount();
+
+                while (result.next()) {
+                    for (int column = 1; column <= columns; column++) {
+                        result.getObject(column);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Latencies of the executions of a query by all the clients with the given indexes
+     * */
+    public static class Result {
+        private final String indexes;
+        private final String query;
+        private final long[] latencyNanos;
+        private final long elapsedNanos;
+
+        Result(String indexes, String query, long[] latencyNanos, long elapsedNanos) {
+            this.indexes = indexes;
+            this.query = query;
+            this.latencyNanos = latencyNanos.clone();
+            this.elapsedNanos = elapsedNanos;
+            Arrays.sort(this.latencyNanos);
+        }
+
+        public String getIndexes() {
+            return indexes;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        /**
+         * Nearest rank percentile, 100 gives the maximum
+         * */
+        public double getPercentileMillis(double percentile) {
+            int rank = (int) Math.ceil(percentile / 100 * latencyNanos.length);
+            return latencyNanos[Math.max(0, rank - 1)] / 1e6;
+        }
+
+        public double getMeanMillis() {
+            return Arrays.stream(latencyNanos).average().orElse(0) / 1e6;
+        }
+
+        /**
+         * Executions of all the clients per second of wall clock time, from the end of the warmup to the last execution
+         * */
+        public double getQueriesPerSecond() {
+            return latencyNanos.length / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-48s p50 %9.3f ms  p99 %9.3f ms  %9.1f q/s  %s", indexes,
+                    getPercentileMillis(50), getPercentileMillis(99), getQueriesPerSecond(), query);
+        }
+    }
+}
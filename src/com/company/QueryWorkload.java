@@ -0,0 +1,127 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Queries and indexes of a script like indexEffectivityExplaning.sql: EXPLAIN (ANALYZE) statements give the queries
+ * (each one once, however many times it is explained), CREATE INDEX statements give the indexes to compare
+ * and SET statements the planner settings of the session. Comments are skipped
+ * */
+public class QueryWorkload {
+    public static final String DEFAULT_FILE = "indexEffectivityExplaning.sql";
+
+    private static final Pattern COMMENT = Pattern.compile("(?s)/\\*.*?\\*/|--[^\\n]*");
+    private static final Pattern SET = Pattern.compile("(?is)SET\\s+\\w+.*");
+    private static final Pattern EXPLAIN = Pattern.compile("(?is)EXPLAIN\\s*(?:\\([^)]*\\))?\\s*(.+)");
+    private static final Pattern QUERY = Pattern.compile("(?is)(?:SELECT|WITH)\\s.+");
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "(?is)CREATE\\s+INDEX\\s+(\\w+)\\s+ON\\s+(\\w+)\\s*(?:USING\\s+(\\w+)\\s*)?\\((.+)\\)");
+
+    private final List<String> settings = new ArrayList<>();
+    private final Set<String> queries = new LinkedHashSet<>();
+    private final List<Index> indexes = new ArrayList<>();
+
+    private QueryWorkload() {
+    }
+
+    public static QueryWorkload read(Path file) throws IOException {
+        return parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    public static QueryWorkload parse(String script) {
+        QueryWorkload workload = new QueryWorkload();
+
+        for (String statement : COMMENT.matcher(script).replaceAll(" ").split(";")) {
+            String sql = statement.trim().replaceAll("\\s+", " ");
+            Matcher matcher;
+
+            if (sql.isEmpty()) {
+                continue;
+            }
+
+            if (SET.matcher(sql).matches()) {
+                workload.settings.add(sql);
+            } else if ((matcher = EXPLAIN.matcher(sql)).matches()) {
+                workload.queries.add(matcher.group(1).trim());
+            } else if (QUERY.matcher(sql).matches()) {
+                workload.queries.add(sql);
+            } else if ((matcher = CREATE_INDEX.matcher(sql)).matches()) {
+                workload.indexes.add(new Index(matcher.group(1), matcher.group(2), matcher.group(3), matcher.group(4).trim()));
+            } else {
+                throw new IllegalArgumentException("Expected EXPLAIN, SELECT, CREATE INDEX or SET: " + sql);
+            }
+        }
+
+        if (workload.queries.isEmpty()) {
+            throw new IllegalArgumentException("No queries in the script");
+        }
+
+        return workload;
+    }
+
+    /**
+     * SET statements, e.g. set enable_hashjoin = off
+     * */
+    public List<String> getSettings() {
+        return Collections.unmodifiableList(settings);
+    }
+
+    public List<String> getQueries() {
+        return new ArrayList<>(queries);
+    }
+
+    public List<Index> getIndexes() {
+        return Collections.unmodifiableList(indexes);
+    }
+
+    public static class Index {
+        private final String name;
+        private final String table;
+        private final String method;
+        private final String columns;
+
+        Index(String name, String table, String method, String columns) {
+            this.name = name;
+            this.table = table;
+            this.method = method;
+            this.columns = columns;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        /**
+         * Access method of USING, e.g. hash, null if the script leaves it to the database
+         * */
+        public String getMethod() {
+            return method;
+        }
+
+        /**
+         * CREATE INDEX statement, withMethod = false leaves out USING for the databases other than PostgreSQL
+         * */
+        public String getCreateSql(boolean withMethod) {
+            return "CREATE INDEX " + name + " ON " + table + (withMethod && method != null ? " USING " + method : "")
+                    + " (" + columns + ")";
+        }
+
+        public String getDropSql() {
+            return "DROP INDEX " + name;
+        }
+    }
+}
@@ -2,65 +2,90 @@ package com.company;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.SplittableRandom;
 
+/**
+ * Seeded source of the generated values. A randomizer is not thread safe,
+ * every partition takes its own one with fork, so the output depends only on the seed
+ * */
 public class Randomizer {
-    private final static String DATE_FORMATTER = "yyyy-MM-dd";
+    private final static DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
 
-    public static String formatDate(LocalDate date) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DATE_FORMATTER);
-        return date.format(formatter);
-    }
+    private final long seed;
+    private final SplittableRandom random;
 
-    public static String getDate(String startDate, String endDate) {
-        long minDay = LocalDate.parse(startDate).toEpochDay();
-        long maxDay = LocalDate.parse(endDate).toEpochDay();
-        long randomDay = ThreadLocalRandom.current().nextLong(minDay, maxDay);
-        LocalDate randomDate = LocalDate.ofEpochDay(randomDay);
-        return formatDate(randomDate);
+    public Randomizer(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
     }
 
-    public static int getNumber(int from, int to) {
-        return (int) (from + Math.round(Math.random() * (to - from)));
+    public long getSeed() {
+        return seed;
     }
 
-    public static int getHandlerId(int usersCount, int restrictedUsersLastIndex) {
-        return getNumber(restrictedUsersLastIndex, usersCount);
+    /**
+     * Independent randomizer for the index-th partition of the stream (usually a table name).
+     * It is derived from the seed only, so partitions may be generated in any order and on any thread
+     * */
+    public Randomizer fork(String stream, int index) {
+        long streamSeed = mix(seed + GOLDEN_GAMMA * stream.hashCode());
+        return new Randomizer(mix(streamSeed + GOLDEN_GAMMA * (index + 1L)));
     }
 
-    public static int getTartarLocationId(int tartarLevelLocationsCount) {
-        return getNumber(1, tartarLevelLocationsCount);
-    }
-
-    public static int getNotTartarLocationId(int tartarLevelLocationsCount, int locationsCount) {
-        return getNumber(tartarLevelLocationsCount + 1, locationsCount);
+    public static String formatDate(LocalDate date) {
+        return date.format(DATE_FORMATTER);
     }
 
-    public static int getMonsterId(int usersCount, int monstersCount) {
-        return getNumber(usersCount + 1, usersCount + monstersCount);
+    public String getDate(String startDate, String endDate) {
+        long minDay = LocalDate.parse(startDate).toEpochDay();
+        long maxDay = LocalDate.parse(endDate).toEpochDay();
+        LocalDate randomDate = LocalDate.ofEpochDay(getEpochDay(minDay, maxDay));
+        return formatDate(randomDate);
     }
 
-    public static int getTorturedSoulId(int usersCount, int monstersCount, int torturedSoulsCount) {
-        return getNumber(usersCount + monstersCount + 1, usersCount + monstersCount + torturedSoulsCount + 1);
+    /**
+     * Day from minDay (included) to maxDay (excluded) counted as LocalDate.toEpochDay(),
+     * draws the same value as getDate with the same bounds
+     * */
+    public long getEpochDay(long minDay, long maxDay) {
+        return random.nextLong(minDay, maxDay);
     }
 
-    public static int getWorkingSoulId(int usersCount, int monstersCount, int torturedSoulsCount, int workingSoulsCount) {
-        return getNumber(usersCount + monstersCount + torturedSoulsCount + 1, usersCount + monstersCount + torturedSoulsCount + workingSoulsCount);
+    /**
+     * Uniform number from .. to, both ends included
+     * */
+    public int getNumber(int from, int to) {
+        return random.nextInt(from, to + 1);
     }
 
-    public static int getTortureId(int torturesCount) {
-        return getNumber(1, torturesCount);
+    /**
+     * Uniform index from 0 to count - 1
+     * */
+    public int getIndex(int count) {
+        return random.nextInt(count);
     }
 
-    public static int getSinTypeId(int sinTypesCount) {
-        return getNumber(1, sinTypesCount);
+    /**
+     * Uniform value from 0 (included) to 1 (excluded)
+     * */
+    public double getDouble() {
+        return random.nextDouble();
     }
 
-    public static double getWeight() {
-        return Math.random();
+    /**
+     * Weight in (0, 1], sin_type._weight has CHECK (_weight > 0)
+     * */
+    public double getWeight() {
+        return 1 - random.nextDouble();
     }
 
-    public static int getWorkId(int worksCount) {
-        return getNumber(1, worksCount);
+    /**
+     * Finalizer of SplitMix64, spreads close seeds (neighbouring partitions) far apart
+     * */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
     }
 }
@@ -0,0 +1,114 @@
+package com.company;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passes at most rowsPerSecond rows and updates a second to the wrapped writer, sleeping before the row that comes too early.
+ * Rows are spread evenly over the second instead of going in bursts. A writer that falls more than a second behind,
+ * e.g. while the database is busy, does not catch up with a burst either: the schedule starts again from that row.
+ * The wrapped writer decides when the rows reach their target, a JdbcRowWriter should be given batches
+ * and commit intervals of a fraction of a second of rows, as Main does for --rate
+ * */
+public class RateLimitedRowWriter extends RowWriter {
+    private static final long MAX_LAG_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MIN_SLEEP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final RowWriter rows;
+    private final double nanosPerRow;
+    private long startNanos;
+    private long permits = 0;
+
+    public RateLimitedRowWriter(RowWriter rows, double rowsPerSecond) {
+        if (!(rowsPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive: " + rowsPerSecond);
+        }
+
+        this.rows = rows;
+        this.nanosPerRow = TimeUnit.SECONDS.toNanos(1) / rowsPerSecond;
+        this.startNanos = System.nanoTime();
+    }
+
+    @Override
+    public RowWriter begin(String table, String columns) throws IOException {
+        acquire();
+        rows.begin(table, columns);
+        return this;
+    }
+
+    @Override
+    public RowWriter value(int value) throws IOException {
+        rows.value(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter value(boolean value) throws IOException {
+        rows.value(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter value(double value) throws IOException {
+        rows.value(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter text(String value) throws IOException {
+        rows.text(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter text(String first, String second, String third) throws IOException {
+        rows.text(first, second, third);
+        return this;
+    }
+
+    @Override
+    public RowWriter date(long epochDay) throws IOException {
+        rows.date(epochDay);
+        return this;
+    }
+
+    @Override
+    public void end() throws IOException {
+        rows.end();
+    }
+
+    @Override
+    public void restartSequence(String table, String column, int lastValue) throws IOException {
+        rows.restartSequence(table, column, lastValue);
+    }
+
+    @Override
+    public void update(String table, String assignments, String condition) throws IOException {
+        acquire();
+        rows.update(table, assignments, condition);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        rows.finish();
+    }
+
+    private void acquire() throws IOException {
+        long due = startNanos + (long) (permits * nanosPerRow);
+        long now = System.nanoTime();
+
+        if (now - due > MAX_LAG_NANOS) {
+            startNanos = now;
+            permits = 0;
+        } else if (due - now > MIN_SLEEP_NANOS) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(due - now);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the rate limit", e);
+            }
+        }
+
+        permits++;
+    }
+}
@@ -0,0 +1,55 @@
+package com.company;
+
+import java.io.IOException;
+
+/**
+ * Destination of the generated rows, filled value by value:
+ * rows.begin("soul", "person_id, birth_date").value(id).date(birthDate).end().
+ * Values go in the order of the columns. finish() has to be called after the last row
+ * */
+public abstract class RowWriter {
+
+    /**
+     * Starts a row of the table, columns are listed as in the column list of INSERT
+     * */
+    public abstract RowWriter begin(String table, String columns) throws IOException;
+
+    public abstract RowWriter value(int value) throws IOException;
+
+    public abstract RowWriter value(boolean value) throws IOException;
+
+    /**
+     * Non negative value with 10 digits after the point, as String.format(Locale.US, "%.10f", value)
+     * */
+    public abstract RowWriter value(double value) throws IOException;
+
+    public abstract RowWriter text(String value) throws IOException;
+
+    /**
+     * Three words joined with spaces as one text value, e.g. a full name
+     * */
+    public abstract RowWriter text(String first, String second, String third) throws IOException;
+
+    /**
+     * Date given as LocalDate.toEpochDay()
+     * */
+    public abstract RowWriter date(long epochDay) throws IOException;
+
+    public abstract void end() throws IOException;
+
+    /**
+     * Makes the SERIAL column continue after lastValue, written between the rows as a separate statement
+     * */
+    public abstract void restartSequence(String table, String column, int lastValue) throws IOException;
+
+    /**
+     * UPDATE table SET assignments WHERE condition, written between the rows as a separate statement,
+     * e.g. update("monster", "location_id = 3", "person_id = 10")
+     * */
+    public abstract void update(String table, String assignments, String condition) throws IOException;
+
+    /**
+     * Closes the statement left open by the last rows
+     * */
+    public abstract void finish() throws IOException;
+}
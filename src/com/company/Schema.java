@@ -0,0 +1,306 @@
+package com.company;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tables of the CREATE TABLE statements of a DDL script with their columns, keys and constraints.
+ * Everything else in the script (views, functions, triggers) is skipped
+ * */
+public class Schema {
+    public static final String DEFAULT_FILE = "ddlCreation.sql";
+
+    private static final Pattern CREATE_TABLE = Pattern.compile("(?i)\\bCREATE\\s+TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?(\\w+)\\s*\\(");
+    private static final Pattern COMMENT = Pattern.compile("--[^\\n]*|/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern CONSTRAINT_NAME = Pattern.compile("(?i)^CONSTRAINT\\s+\\w+\\s+");
+    private static final Pattern PRIMARY_KEY = Pattern.compile("(?i)^PRIMARY\\s+KEY\\s*\\((.*)\\)$");
+    private static final Pattern UNIQUE = Pattern.compile("(?i)^UNIQUE\\s*\\((.*)\\)$");
+    private static final Pattern FOREIGN_KEY = Pattern.compile("(?i)^FOREIGN\\s+KEY\\s*\\(\\s*(\\w+)\\s*\\)\\s*REFERENCES\\s+(\\w+)\\s*\\(\\s*(\\w+)\\s*\\).*");
+    private static final Pattern CHECK = Pattern.compile("(?i)^CHECK\\s*\\((.*)\\)$");
+    private static final Pattern COLUMN = Pattern.compile("(?i)^(\\w+)\\s+(\\w+(?:\\s+VARYING)?)\\s*(?:\\(\\s*(\\d+)\\s*(?:,\\s*\\d+\\s*)?\\))?(.*)$", Pattern.DOTALL);
+    private static final Pattern REFERENCES = Pattern.compile("(?i)^REFERENCES\\s+(\\w+)\\s*\\(\\s*(\\w+)\\s*\\)");
+    private static final Pattern REFERENTIAL_ACTION = Pattern.compile("(?i)^ON\\s+(?:DELETE|UPDATE)\\s+(?:CASCADE|RESTRICT|NO\\s+ACTION|SET\\s+NULL|SET\\s+DEFAULT)");
+    private static final Pattern WORD = Pattern.compile("\\S+");
+
+    private static Schema defaultSchema;
+
+    private final Map<String, Table> tables = new LinkedHashMap<>();
+    private String digest;
+
+    private Schema() {
+    }
+
+    /**
+     * ddlCreation.sql from the classpath, where the build puts it, or from the working directory
+     * */
+    public static synchronized Schema getDefault() {
+        if (defaultSchema == null) {
+            try (InputStream stream = Schema.class.getResourceAsStream("/" + DEFAULT_FILE)) {
+                defaultSchema = stream != null
+                        ? parse(new String(stream.readAllBytes(), StandardCharsets.UTF_8))
+                        : read(Paths.get(DEFAULT_FILE));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can not read " + DEFAULT_FILE, e);
+            }
+        }
+
+        return defaultSchema;
+    }
+
+    public static Schema read(Path file) throws IOException {
+        return parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    public static Schema parse(String ddl) {
+        Schema schema = new Schema();
+        String script = COMMENT.matcher(ddl).replaceAll(" ");
+        Matcher matcher = CREATE_TABLE.matcher(script);
+        StringBuilder definitions = new StringBuilder();
+
+        while (matcher.find()) {
+            int end = findClosingParenthesis(script, matcher.end());
+            definitions.append(script, matcher.start(), end + 1).append(";\n");
+            Table table = new Table(matcher.group(1));
+
+            for (String definition : splitTopLevel(script.substring(matcher.end(), end))) {
+                parseDefinition(table, definition);
+            }
+
+            if (schema.tables.putIfAbsent(table.getName(), table) != null) {
+                throw new IllegalArgumentException("Table " + table.getName() + " is created twice");
+            }
+
+            matcher.region(end, script.length());
+        }
+
+        for (Table table : schema.tables.values()) {
+            for (Column column : table.getColumns()) {
+                if (column.getReferencedTable() != null) {
+                    schema.getTable(column.getReferencedTable()).getColumn(column.getReferencedColumn());
+                }
+            }
+        }
+
+        schema.digest = digest(definitions.toString().replaceAll("\\s+", " "));
+        return schema;
+    }
+
+    /**
+     * SHA-256 of the CREATE TABLE statements without comments and extra whitespace,
+     * the generated data depends on them only
+     * */
+    public String getDigest() {
+        return digest;
+    }
+
+    /**
+     * Tables in the order of the script
+     * */
+    public List<Table> getTables() {
+        return Collections.unmodifiableList(new ArrayList<>(tables.values()));
+    }
+
+    public Table getTable(String name) {
+        Table table = tables.get(name);
+
+        if (table == null) {
+            throw new IllegalArgumentException("Unknown table " + name + ", expected one of " + tables.keySet());
+        }
+
+        return table;
+    }
+
+    public boolean hasTable(String name) {
+        return tables.containsKey(name);
+    }
+
+    /**
+     * Tables ordered so that every table goes after the tables it references, otherwise in the order of the script
+     * */
+    public List<Table> getLoadOrder() {
+        List<Table> order = new ArrayList<>();
+        Map<String, Boolean> visited = new LinkedHashMap<>();
+
+        for (Table table : tables.values()) {
+            visit(table, visited, order);
+        }
+
+        return order;
+    }
+
+    private void visit(Table table, Map<String, Boolean> visited, List<Table> order) {
+        Boolean done = visited.get(table.getName());
+
+        if (done != null) {
+            if (!done) {
+                throw new IllegalArgumentException("Foreign keys of " + table.getName() + " form a cycle");
+            }
+
+            return;
+        }
+
+        visited.put(table.getName(), false);
+
+        for (String referenced : table.getReferencedTables()) {
+            visit(getTable(referenced), visited, order);
+        }
+
+        visited.put(table.getName(), true);
+        order.add(table);
+    }
+
+    private static void parseDefinition(Table table, String definition) {
+        definition = CONSTRAINT_NAME.matcher(definition.trim()).replaceFirst("");
+        Matcher matcher;
+
+        if ((matcher = PRIMARY_KEY.matcher(definition)).matches()) {
+            String[] names = matcher.group(1).split(",");
+
+            for (String name : names) {
+                if (names.length == 1) {
+                    table.getColumn(name.trim()).setPrimaryKey();
+                } else {
+                    table.getColumn(name.trim()).setNotNull();
+                }
+            }
+        } else if ((matcher = UNIQUE.matcher(definition)).matches()) {
+            String[] names = matcher.group(1).split(",");
+
+            // A composite UNIQUE constraint does not make its columns unique one by one
+            if (names.length == 1) {
+                table.getColumn(names[0].trim()).setUnique();
+            }
+        } else if ((matcher = FOREIGN_KEY.matcher(definition)).matches()) {
+            table.getColumn(matcher.group(1)).setReference(matcher.group(2), matcher.group(3));
+        } else if ((matcher = CHECK.matcher(definition)).matches()) {
+            table.addCheck(new Check(matcher.group(1)));
+        } else if ((matcher = COLUMN.matcher(definition)).matches()) {
+            String type = matcher.group(2).replaceAll("\\s+", " ");
+            Column column = new Column(matcher.group(1), ColumnType.of(type), matcher.group(3) != null ? Integer.parseInt(matcher.group(3)) : 0,
+                    type.toUpperCase(Locale.ROOT).endsWith("SERIAL"));
+            table.addColumn(column);
+            parseConstraints(table, column, matcher.group(4).trim());
+        } else {
+            throw new IllegalArgumentException("Can not parse " + definition + " in table " + table.getName());
+        }
+    }
+
+    /**
+     * Constraints after the type of a column: PRIMARY KEY, NOT NULL, NULL, UNIQUE, DEFAULT, CHECK and REFERENCES
+     * */
+    private static void parseConstraints(Table table, Column column, String constraints) {
+        while (!constraints.isEmpty()) {
+            String upper = constraints.toUpperCase(Locale.ROOT);
+            Matcher matcher;
+
+            if (upper.startsWith("PRIMARY KEY")) {
+                column.setPrimaryKey();
+                constraints = constraints.substring("PRIMARY KEY".length());
+            } else if (upper.startsWith("NOT NULL")) {
+                column.setNotNull();
+                constraints = constraints.substring("NOT NULL".length());
+            } else if (upper.startsWith("NULL")) {
+                constraints = constraints.substring("NULL".length());
+            } else if (upper.startsWith("UNIQUE")) {
+                column.setUnique();
+                constraints = constraints.substring("UNIQUE".length());
+            } else if (upper.startsWith("DEFAULT")) {
+                Matcher value = WORD.matcher(constraints.substring("DEFAULT".length()));
+                value.find();
+                column.setDefault();
+                constraints = constraints.substring("DEFAULT".length() + value.end());
+            } else if (upper.startsWith("CHECK")) {
+                int start = constraints.indexOf('(');
+                int end = findClosingParenthesis(constraints, start + 1);
+                table.addCheck(new Check(constraints.substring(start + 1, end)));
+                constraints = constraints.substring(end + 1);
+            } else if ((matcher = REFERENCES.matcher(constraints)).find()) {
+                column.setReference(matcher.group(1), matcher.group(2));
+                constraints = constraints.substring(matcher.end());
+            } else if ((matcher = REFERENTIAL_ACTION.matcher(constraints)).find()) {
+                constraints = constraints.substring(matcher.end());
+            } else {
+                throw new IllegalArgumentException("Can not parse " + constraints + " of " + table.getName() + "." + column.getName());
+            }
+
+            constraints = constraints.trim();
+        }
+    }
+
+    /**
+     * Index of the parenthesis closing the one just before from, quoted text is skipped
+     * */
+    private static int findClosingParenthesis(String text, int from) {
+        int depth = 1;
+        boolean quoted = false;
+
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && c == '(') {
+                depth++;
+            } else if (!quoted && c == ')' && --depth == 0) {
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException("Unbalanced parentheses after " + text.substring(Math.max(0, from - 40), from));
+    }
+
+    private static List<String> splitTopLevel(String text) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        boolean quoted = false;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && c == '(') {
+                depth++;
+            } else if (!quoted && c == ')') {
+                depth--;
+            } else if (!quoted && depth == 0 && c == ',') {
+                parts.add(text.substring(start, i));
+                start = i + 1;
+            }
+        }
+
+        parts.add(text.substring(start));
+        return parts;
+    }
+
+    private static String digest(String text) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by the Java platform", e);
+        }
+    }
+}
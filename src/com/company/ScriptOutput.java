@@ -0,0 +1,96 @@
+package com.company;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * How the scripts are written: format, compression, buffer and file size.
+ * Each thread keeps one direct buffer and reuses it for all the files it writes
+ * */
+public class ScriptOutput {
+    public static final String MANIFEST = "manifest.sql";
+    /**
+     * Written instead of the manifest for compressed files, which psql can not include: zcat $(cat manifest.txt) | psql
+     * */
+    public static final String FILE_LIST = "manifest.txt";
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private final OutputFormat format;
+    private final int batchSize;
+    private final Compression compression;
+    private final long maxFileSize;
+    private final ThreadLocal<ByteBuffer> buffers;
+
+    /**
+     * maxFileSize is in bytes before compression, 0 to write everything into one file
+     * */
+    public ScriptOutput(OutputFormat format, int batchSize, Compression compression, int bufferSize, long maxFileSize) {
+        if (bufferSize < 16 || maxFileSize < 0) {
+            throw new IllegalArgumentException("Invalid buffer size " + bufferSize + " or file size " + maxFileSize);
+        }
+
+        this.format = format;
+        this.batchSize = batchSize;
+        this.compression = compression;
+        this.maxFileSize = maxFileSize;
+        this.buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(bufferSize));
+    }
+
+    public OutputFormat getFormat() {
+        return format;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public long getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public boolean isSplit() {
+        return maxFileSize > 0;
+    }
+
+    /**
+     * Rows of directory/name.sql, or of its parts when the files are split by size.
+     * The file names are known after finish()
+     * */
+    public ChunkedRowWriter create(Path directory, String name) {
+        return new ChunkedRowWriter(this, directory, name);
+    }
+
+    /**
+     * Lists the files in load order: \ir lines of manifest.sql, or plain names in manifest.txt when compressed
+     * */
+    public void writeManifest(Path directory, List<String> fileNames) throws IOException {
+        boolean compressed = compression != Compression.NONE;
+
+        try (Writer writer = new ChannelWriter(FileChannel.open(directory.resolve(compressed ? FILE_LIST : MANIFEST),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE), buffers.get())) {
+            for (String fileName : fileNames) {
+                writer.write(compressed ? fileName + "\n" : "\\ir " + fileName + "\n");
+            }
+        }
+    }
+
+    ChannelWriter open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+
+        try {
+            return new ChannelWriter(compression.wrap(channel), buffers.get());
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+}
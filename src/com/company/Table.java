@@ -0,0 +1,72 @@
+package com.company;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Table of a CREATE TABLE statement: its columns in the declared order and its CHECK constraints
+ * */
+public class Table {
+    private final String name;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+    private final List<Check> checks = new ArrayList<>();
+
+    Table(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Column> getColumns() {
+        return Collections.unmodifiableList(new ArrayList<>(columns.values()));
+    }
+
+    /**
+     * Column by its name, IllegalArgumentException if the table has no such column
+     * */
+    public Column getColumn(String name) {
+        Column column = columns.get(name);
+
+        if (column == null) {
+            throw new IllegalArgumentException("Table " + this.name + " has no column " + name + ", expected one of " + columns.keySet());
+        }
+
+        return column;
+    }
+
+    public List<Check> getChecks() {
+        return Collections.unmodifiableList(checks);
+    }
+
+    /**
+     * Tables referenced by the foreign keys, the table itself excluded
+     * */
+    public Set<String> getReferencedTables() {
+        Set<String> tables = new LinkedHashSet<>();
+
+        for (Column column : columns.values()) {
+            if (column.getReferencedTable() != null && !column.getReferencedTable().equals(name)) {
+                tables.add(column.getReferencedTable());
+            }
+        }
+
+        return tables;
+    }
+
+    void addColumn(Column column) {
+        if (columns.putIfAbsent(column.getName(), column) != null) {
+            throw new IllegalArgumentException("Column " + column.getName() + " of " + name + " is declared twice");
+        }
+    }
+
+    void addCheck(Check check) {
+        checks.add(check);
+    }
+}
@@ -0,0 +1,160 @@
+package com.company;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How the rows of a table are generated: their count and a generator per written column, in the order of writing.
+ * Columns left out get their defaults from the database. All the tables go through write(), which emits
+ * every row with the same column list, so the writers batch a whole chunk
+ * */
+public class TableSpec {
+    private final Table table;
+    private final int rowsCount;
+    private final List<Column> columns = new ArrayList<>();
+    private final List<ColumnGenerator> generators = new ArrayList<>();
+    private String columnList;
+    private ColumnGenerator[] generatorArray;
+
+    public TableSpec(Table table, int rowsCount) {
+        if (rowsCount < 0) {
+            throw new IllegalArgumentException("Rows count of " + table.getName() + " must not be negative: " + rowsCount);
+        }
+
+        this.table = table;
+        this.rowsCount = rowsCount;
+    }
+
+    /**
+     * Adds the next column to write, the columns before it can be read from the values passed to the generator
+     * */
+    public TableSpec column(String name, ColumnGenerator generator) {
+        Column column = table.getColumn(name);
+
+        if (columns.contains(column)) {
+            throw new IllegalArgumentException("Column " + name + " of " + table.getName() + " is generated twice");
+        }
+
+        columns.add(column);
+        generators.add(generator);
+        return this;
+    }
+
+    public Table getTable() {
+        return table;
+    }
+
+    public String getName() {
+        return table.getName();
+    }
+
+    public int getRowsCount() {
+        return rowsCount;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Generator of a written column, null if the column is left to its default
+     * */
+    public ColumnGenerator getGenerator(String column) {
+        int index = columns.indexOf(table.getColumn(column));
+        return index >= 0 ? generators.get(index) : null;
+    }
+
+    /**
+     * Writes the rows from .. to - 1, after verify()
+     * */
+    public void write(RowWriter rows, Randomizer random, int from, int to) throws IOException {
+        String name = table.getName();
+        ColumnGenerator[] generators = generatorArray;
+        long[] values = new long[generators.length];
+
+        for (int row = from; row < to; row++) {
+            rows.begin(name, columnList);
+
+            for (int i = 0; i < generators.length; i++) {
+                values[i] = generators[i].write(rows, random, row, values);
+            }
+
+            rows.end();
+        }
+    }
+
+    /**
+     * Checks the spec against the schema: every column that can not be left out is written, values have the type
+     * of their columns, texts fit them, keys and UNIQUE columns get distinct values, CHECK constraints hold for the ranges
+     * of the values and references stay within the keys of the referenced tables, which have to be generated earlier.
+     * specs holds the tables generated before this one
+     * */
+    void verify(Map<String, TableSpec> specs) {
+        Map<String, double[]> ranges = new HashMap<>();
+        StringBuilder list = new StringBuilder();
+
+        for (Column column : table.getColumns()) {
+            if (!columns.contains(column) && !column.isOptional()) {
+                throw new IllegalArgumentException(describe(column) + " is NOT NULL without a default, but not generated");
+            }
+        }
+
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            ColumnGenerator generator = generators.get(i);
+            list.append(i > 0 ? ", " : "").append(column.getName());
+            ranges.put(column.getName(), new double[]{generator.getMin(), generator.getMax()});
+
+            if (generator.getType() != null && generator.getType() != column.getType()
+                    && !(generator.getType() == ColumnType.INTEGER && column.getType() == ColumnType.REAL)) {
+                throw new IllegalArgumentException(describe(column) + " is " + column.getType() + ", but " + generator.getType()
+                        + " values are generated");
+            }
+
+            if (column.isUnique() && !generator.isDistinct(rowsCount)) {
+                throw new IllegalArgumentException(describe(column) + " is " + (column.isPrimaryKey() ? "the primary key" : "UNIQUE")
+                        + ", but its " + rowsCount + " values may repeat");
+            }
+
+            if (column.getLength() > 0 && generator.getMaxLength() > column.getLength()) {
+                throw new IllegalArgumentException(describe(column) + " is VARCHAR(" + column.getLength() + "), but texts of "
+                        + generator.getMaxLength() + " characters are generated");
+            }
+
+            if (column.getReferencedTable() != null && rowsCount > 0) {
+                verifyReference(column, generator, specs.get(column.getReferencedTable()));
+            }
+        }
+
+        for (Check check : table.getChecks()) {
+            if (!check.holds(ranges)) {
+                throw new IllegalArgumentException(check + " of " + table.getName() + " may fail for the generated values");
+            }
+        }
+
+        columnList = list.toString();
+        generatorArray = generators.toArray(new ColumnGenerator[0]);
+    }
+
+    private void verifyReference(Column column, ColumnGenerator generator, TableSpec referenced) {
+        ColumnGenerator key = referenced != null ? referenced.getGenerator(column.getReferencedColumn()) : null;
+
+        if (key == null) {
+            throw new IllegalArgumentException(describe(column) + " references " + column.getReferencedTable() + "."
+                    + column.getReferencedColumn() + ", which is not generated before it");
+        }
+
+        if (generator.getMin() < key.getMin() || generator.getMax() > key.getMax()) {
+            throw new IllegalArgumentException(String.format("%s takes values %.0f .. %.0f, but %s.%s has only %.0f .. %.0f",
+                    describe(column), generator.getMin(), generator.getMax(),
+                    column.getReferencedTable(), column.getReferencedColumn(), key.getMin(), key.getMax()));
+        }
+    }
+
+    private String describe(Column column) {
+        return table.getName() + "." + column.getName();
+    }
+}
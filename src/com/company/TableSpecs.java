@@ -0,0 +1,284 @@
+package com.company;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.company.ColumnGenerators.*;
+
+/**
+ * Generators of every column of the schema, the texts they take them from and the base row counts.
+ * Person ids follow the layout:
+ * 1: DELETED
+ * 2: AUTO
+ * users: 3 .. usersCount
+ * monsters: usersCount + 1 .. usersCount + monstersCount
+ * torturedSouls: usersCount + monstersCount + 1 .. usersCount + monstersCount + torturedSoulsCount
+ * workingSouls: then workingSoulsCount ids
+ * nonDistributedSouls: the rest up to the last person id
+ * Events 1 .. distributedEventsCount are distributed, the rest are not.
+ * Rows of souls and events are split the same way, e.g. only the distributed ones have a handler;
+ * the others get the default handler NON-HANDLED
+ * */
+public final class TableSpecs {
+    static final String[] levels = new String[]{"Тартар", "Асфоделевый луг", "Элизиум"};
+    static final String[] statuses = new String[]{"Не обработано", "Одобрено", "Отказано"};
+    static final String[] users = new String[]{"DELETED", "AUTO", "UNAUTHORIZED", "NON-HANDLED", "Аид", "Персефона", "Эак", "Радамант", "Минос"};
+    static final String[] tartarLocations = new String[]{"Река страданий", "Лес ужаса", "Озеро страха", "Пещера мучений", "Море пыток"};
+    static final String[] asphodelLocations = new String[]{"Поле сомнений", "Река печали", "Лес разочарований", "Степь тоски", "Болото горечи"};
+    static final String[] elysiumLocations = new String[]{"Лес сказок", "Поле чудес", "Море радости", "Озеро спокойствия", "Дорога добра"};
+    static final String[] locations = Stream.of(tartarLocations, asphodelLocations, elysiumLocations)
+            .flatMap(Arrays::stream).toArray(String[]::new);
+    static final String[] monsters = new String[]{"Алекто", "Мегера", "Тисифона", "Лернейская Гидра", "Ехидна", "Герион", "Пифон"};
+    static final String[] tortures = new String[]{"Бесконечное наполнение бездонной бочки", "Разрыв внутренних органов", "Башмаки с шипом",
+            "Вилка еретика", "Кресло для ведьминого купания", "Испанский сапог", "Пытка водой",
+            "Кошачий коготь", "Дыба", "Четвертование лошадьми", "Груша", "Очищение души",
+            "Пресс для черепа", "Колыбель Иуды", "Железная дева", "Кол", "Пила"};
+    static final String[] works = new String[]{"Шут", "Лекарь", "Добытчик серебра", "Стеркорариус", "Переносчик людей",
+            "Гимназиарх", "Создатель табличек с проклятьями", "Похоронный клоун",
+            "Пращик", "Водный органист", "Летописец", "Бард"};
+    static final String[] sinTypes = new String[]{"Убийство", "Воровство", "Военное преступление", "Профессиональное преступление",
+            "Рецидивистское преступление", "Вымогательство", "Хулиганство",
+            "Доведение до самоубийства", "Похищение человека",
+            "Террористический акт", "жестокое обращение с животными", "Клевета", "Побои",
+            "Причинение тяжкого вреда здоровью"};
+
+    static final String[] titles = new String[]{"Перевод на работу", "Смена пытки", "Перерождение", "Большая просьба", "Меня замучали!"};
+    static final String[] bodies = new String[]{"Переведите меня, пожалуйста, на работу", "Смените мне пытку, пожалуйста", "Переродите меня, пожалуйста", "Я очень устал, дайте мне работу вместо пытки", "Пожалуйста, увольте моего монстра, он делает то, что мне не назначено!"};
+
+    static final String[] nameList = new String[]{"Иван", "Дмитрий", "Николай", "Сергей", "Глеб", "Денис"};
+    static final String[] torturedMenSurnameList = new String[]{"Иванов", "Шигалев", "Григорьев", "Краснов", "Белов", "Кроваткин", "Стулович", "Красочников", "Вернандский", "Чопорев", "Трубчанский", "Туманов", "Тучников", "Капотников"};
+    static final String[] workingMenSurnameList = new String[]{"Чуков", "Геков", "Сланцев", "Тихомиров", "Чукотский", "Корышкин", "Лебедев", "Ларченко", "Круглёныш", "Ножница", "Лимонченко", "Сташевский"};
+    static final String[] nonDistributedMenSurnameList = new String[]{"Пух", "Рыжов", "Чмок", "Кряк", "Кройченко", "Пекаревский", "Кисловязов", "Собирович", "Дровосековский", "Лукич", "Застекайло", "Многокриков"};
+    static final String[] fatherNameList = new String[]{"Иванович", "Дмитриевич", "Николаевич", "Сергеевич", "Глебович", "Борисович", "Денисович", "Валерьевич", "Мирославович", "Григорьевич", "Артемьевич", "Витальевич", "Александрович", "Алексеевич"};
+
+    static final String[] actionList = new String[]{"Убил", "Сбил", "Похитил", "Избил", "Сбросил со скалы", "Довел до самоубийства", "Замучил", "Ударил", "Застрелил", "Держал в заложниках"};
+    static final String[] subjectDistributedList = new String[]{"консьержку", "знакомую", "знакомого", "собаку", "одногруппника", "жену", "прохожего", "соседа", "друга", "брата"};
+    static final String[] subjectNonDistributedList = new String[]{"кошку", "тещу", "тестя", "сестру", "двоюродную сестру", "племянницу", "бездомного", "коллегу", "начальника", "племянника"};
+    static final String[] conditionList = new String[]{"с особой жестокостью", "не единожды", "будучи принужденным", "будучи в состоянии алкогольного опьянения", "будучи в состоянии наркотического опьянения", "будучи в состоянии аффекта", "и скрылся с места преступления", "и пришел с повинной", "и был пойман с поличным", "и понес наказание в виде лишения свободы"};
+
+    /**
+     * Row counts of the scalable tables at scale factor 1, i.e. one row per combination of the lists above
+     * */
+    static final int baseTorturedSoulsCount = nameList.length * torturedMenSurnameList.length * fatherNameList.length;
+    static final int baseWorkingSoulsCount = nameList.length * workingMenSurnameList.length * fatherNameList.length;
+    static final int baseNonDistributedSoulsCount = nameList.length * nonDistributedMenSurnameList.length * fatherNameList.length;
+    static final int baseDistributedEventsCount = actionList.length * subjectDistributedList.length * conditionList.length;
+    static final int baseNonDistributedEventsCount = actionList.length * subjectNonDistributedList.length * conditionList.length;
+
+    static final long eventDateFrom = LocalDate.of(1953, 1, 1).toEpochDay();
+    static final long eventDateTo = LocalDate.of(1973, 1, 1).toEpochDay();
+    static final long birthDateFrom = LocalDate.of(1923, 1, 1).toEpochDay();
+    static final long birthDateTo = LocalDate.of(1933, 1, 1).toEpochDay();
+    static final long deathDateFrom = LocalDate.of(1973, 1, 1).toEpochDay();
+    static final long deathDateTo = LocalDate.of(2022, 1, 1).toEpochDay();
+
+    private TableSpecs() {
+    }
+
+    /**
+     * Specs of all the tables of the schema in load order, each verified against the schema
+     * */
+    static Map<String, TableSpec> create(Schema schema, Layout layout) {
+        Map<String, TableSpec> specs = new LinkedHashMap<>();
+
+        for (Table table : schema.getLoadOrder()) {
+            TableSpec spec = create(table, layout);
+            spec.verify(specs);
+            specs.put(table.getName(), spec);
+        }
+
+        return specs;
+    }
+
+    /**
+     * Specs of the rows an append round adds to a loaded database: the persons and souls of delta with the ids after
+     * the last one of state, their work list entries, and new events and complaints of any soul.
+     * The events and complaints come unhandled, as the application would insert them, and the updates of the round handle them.
+     * Each spec is verified against the keys the database has after the round
+     * */
+    static Map<String, TableSpec> createDelta(Schema schema, Layout delta, DatabaseState state, DatabaseState next,
+                                              Distributions distributions) {
+        Map<String, TableSpec> keys = new LinkedHashMap<>();
+        Map<String, TableSpec> specs = new LinkedHashMap<>();
+        int firstSoulId = state.getFirstSoulId();
+        key(keys, schema, "person", "id", 1, next.getLastPersonId());
+        key(keys, schema, "soul", "person_id", firstSoulId, next.getLastPersonId() - firstSoulId + 1);
+        key(keys, schema, "_user", "person_id", 1, state.getLastUserId());
+        key(keys, schema, "torture", "id", 1, state.getLastTortureId());
+        key(keys, schema, "work", "id", 1, state.getLastWorkId());
+        key(keys, schema, "_status", "id", 1, statuses.length);
+        key(keys, schema, "_event", "id", 1, next.getLastEventId());
+
+        for (Table table : schema.getLoadOrder()) {
+            TableSpec spec = createDelta(table, delta, state, distributions);
+
+            if (spec != null) {
+                spec.verify(keys);
+                specs.put(table.getName(), spec);
+            }
+        }
+
+        return specs;
+    }
+
+    private static void key(Map<String, TableSpec> keys, Schema schema, String table, String column, int first, int count) {
+        if (schema.hasTable(table)) {
+            keys.put(table, new TableSpec(schema.getTable(table), 0).column(column, sequence(first, count)));
+        }
+    }
+
+    /**
+     * null for the tables an append round leaves alone
+     * */
+    private static TableSpec createDelta(Table table, Layout delta, DatabaseState state, Distributions distributions) {
+        int tortured = delta.getTorturedSoulsCount();
+        int distributed = tortured + delta.getWorkingSoulsCount();
+        int distributedEvents = delta.getDistributedEventsCount();
+        int firstPersonId = state.getLastPersonId() + 1;
+        ColumnGenerator defaultHandler = constant(delta.getFirstHandlerId());
+
+        switch (table.getName()) {
+            case "person":
+                return new TableSpec(table, delta.getSoulsCount())
+                        .column("id", sequence(firstPersonId, delta.getSoulsCount()))
+                        .column("_name", ranges(new int[]{tortured, distributed},
+                                combination(0, nameList, fatherNameList, torturedMenSurnameList),
+                                combination(tortured, nameList, fatherNameList, workingMenSurnameList),
+                                combination(distributed, nameList, fatherNameList, nonDistributedMenSurnameList)));
+            case "soul":
+                return new TableSpec(table, delta.getSoulsCount())
+                        .column("person_id", sequence(firstPersonId, delta.getSoulsCount()))
+                        .column("birth_date", drawDate(distributions.get("soul", "birth_date")))
+                        .column("date_of_death", drawDate(distributions.get("soul", "date_of_death")))
+                        .column("is_working", flag(tortured, distributed))
+                        .column("is_distributed", flag(0, distributed))
+                        .column("handler_id", ranges(new int[]{distributed}, draw(distributions.get("soul", "handler_id")), defaultHandler))
+                        .column("torture_id", draw(distributions.get("soul", "torture_id")));
+            case "complaint":
+                return new TableSpec(table, delta.getComplaintsCount())
+                        .column("id", sequence(state.getLastComplaintId() + 1, delta.getComplaintsCount()))
+                        .column("title", pick(titles))
+                        .column("body", sameIndex(1, bodies))
+                        .column("soul_id", draw(distributions.get("complaint", "soul_id")))
+                        .column("status_id", constant(1));
+            case "_event":
+                return new TableSpec(table, delta.getEventsCount())
+                        .column("id", sequence(state.getLastEventId() + 1, delta.getEventsCount()))
+                        .column("_text", ranges(new int[]{distributedEvents},
+                                combination(0, actionList, subjectDistributedList, conditionList),
+                                combination(distributedEvents, actionList, subjectNonDistributedList, conditionList)))
+                        .column("soul_id", draw(distributions.get("_event", "soul_id")))
+                        .column("_date", drawDate(distributions.get("_event", "_date")))
+                        .column("status_id", constant(1))
+                        .column("handler_id", defaultHandler);
+            case "work_list":
+                return new TableSpec(table, delta.getWorkingSoulsCount())
+                        .column("soul_id", sequence(firstPersonId + tortured, delta.getWorkingSoulsCount()))
+                        .column("work_id", draw(distributions.get("work_list", "work_id")));
+            default:
+                return null;
+        }
+    }
+
+    private static TableSpec create(Table table, Layout layout) {
+        int tortured = layout.getTorturedSoulsCount();
+        int distributed = tortured + layout.getWorkingSoulsCount();
+        int distributedEvents = layout.getDistributedEventsCount();
+        ColumnGenerator defaultHandler = constant(layout.getFirstHandlerId());
+
+        switch (table.getName()) {
+            case "person":
+                return new TableSpec(table, layout.getLastPersonId())
+                        .column("id", sequence(1, layout.getLastPersonId()))
+                        .column("_name", ranges(new int[]{layout.getFirstMonsterId() - 1, layout.getFirstSoulId() - 1,
+                                        layout.getFirstWorkingSoulId() - 1, layout.getFirstNonDistributedSoulId() - 1},
+                                list(0, users),
+                                list(layout.getFirstMonsterId() - 1, monsters),
+                                combination(layout.getFirstSoulId() - 1, nameList, fatherNameList, torturedMenSurnameList),
+                                combination(layout.getFirstWorkingSoulId() - 1, nameList, fatherNameList, workingMenSurnameList),
+                                combination(layout.getFirstNonDistributedSoulId() - 1, nameList, fatherNameList, nonDistributedMenSurnameList)));
+            case "_user":
+                return new TableSpec(table, layout.getUsersCount())
+                        .column("person_id", sequence(1, layout.getUsersCount()));
+            case "_level":
+                return new TableSpec(table, levels.length)
+                        .column("id", sequence(1, levels.length))
+                        .column("_name", list(0, levels));
+            case "_location":
+                return new TableSpec(table, layout.getLocationsCount())
+                        .column("id", sequence(1, layout.getLocationsCount()))
+                        .column("level_id", ranges(new int[]{tartarLocations.length, tartarLocations.length + asphodelLocations.length},
+                                constant(1), constant(2), constant(3)))
+                        .column("_name", list(0, locations));
+            case "monster":
+                return new TableSpec(table, layout.getMonstersCount())
+                        .column("person_id", sequence(layout.getFirstMonsterId(), layout.getMonstersCount()))
+                        .column("location_id", draw(layout.getDistribution("monster", "location_id")))
+                        .column("motherland_id", draw(layout.getDistribution("monster", "motherland_id")));
+            case "torture":
+                return new TableSpec(table, layout.getTorturesCount())
+                        .column("id", sequence(1, layout.getTorturesCount()))
+                        .column("_name", list(0, tortures))
+                        .column("monster_id", draw(layout.getDistribution("torture", "monster_id")))
+                        .column("creator_id", draw(layout.getDistribution("torture", "creator_id")))
+                        .column("handler_id", draw(layout.getDistribution("torture", "handler_id")));
+            case "soul":
+                return new TableSpec(table, layout.getSoulsCount())
+                        .column("person_id", sequence(layout.getFirstSoulId(), layout.getSoulsCount()))
+                        .column("birth_date", drawDate(layout.getDistribution("soul", "birth_date")))
+                        .column("date_of_death", drawDate(layout.getDistribution("soul", "date_of_death")))
+                        .column("is_working", flag(tortured, distributed))
+                        .column("is_distributed", flag(0, distributed))
+                        .column("handler_id", ranges(new int[]{distributed}, draw(layout.getDistribution("soul", "handler_id")), defaultHandler))
+                        .column("torture_id", draw(layout.getDistribution("soul", "torture_id")));
+            case "sin_type":
+                return new TableSpec(table, layout.getSinTypesCount())
+                        .column("id", sequence(1, layout.getSinTypesCount()))
+                        .column("_name", list(0, sinTypes))
+                        .column("_weight", weight())
+                        .column("handler_id", draw(layout.getDistribution("sin_type", "handler_id")))
+                        .column("creator_id", draw(layout.getDistribution("sin_type", "creator_id")))
+                        .column("torture_id", draw(layout.getDistribution("sin_type", "torture_id")));
+            case "_status":
+                return new TableSpec(table, statuses.length)
+                        .column("id", sequence(1, statuses.length))
+                        .column("_name", list(0, statuses));
+            case "complaint":
+                return new TableSpec(table, layout.getComplaintsCount())
+                        .column("id", sequence(1, layout.getComplaintsCount()))
+                        .column("title", pick(titles))
+                        .column("body", sameIndex(1, bodies))
+                        .column("soul_id", draw(layout.getDistribution("complaint", "soul_id")))
+                        .column("status_id", constant(1));
+            case "_event":
+                return new TableSpec(table, layout.getEventsCount())
+                        .column("id", sequence(1, layout.getEventsCount()))
+                        .column("_text", ranges(new int[]{distributedEvents},
+                                combination(0, actionList, subjectDistributedList, conditionList),
+                                combination(distributedEvents, actionList, subjectNonDistributedList, conditionList)))
+                        .column("soul_id", draw(layout.getDistribution("_event", "soul_id")))
+                        .column("_date", drawDate(layout.getDistribution("_event", "_date")))
+                        .column("status_id", ranges(new int[]{distributedEvents}, constant(2), constant(1)))
+                        .column("handler_id", ranges(new int[]{distributedEvents}, draw(layout.getDistribution("_event", "handler_id")), defaultHandler));
+            case "work":
+                return new TableSpec(table, layout.getWorksCount())
+                        .column("id", sequence(1, layout.getWorksCount()))
+                        .column("_name", list(0, works))
+                        .column("location_id", draw(layout.getDistribution("work", "location_id")))
+                        .column("creator_id", draw(layout.getDistribution("work", "creator_id")));
+            case "sin_type_distribution_list":
+                return new TableSpec(table, distributedEvents)
+                        .column("event_id", sequence(1, distributedEvents))
+                        .column("sin_type_id", draw(layout.getDistribution("sin_type_distribution_list", "sin_type_id")));
+            case "work_list":
+                return new TableSpec(table, layout.getWorkingSoulsCount())
+                        .column("soul_id", sequence(layout.getFirstWorkingSoulId(), layout.getWorkingSoulsCount()))
+                        .column("work_id", draw(layout.getDistribution("work_list", "work_id")));
+            default:
+                throw new IllegalArgumentException("No generators for table " + table.getName() + " of the schema");
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.company;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Builds rows as text value by value in a reused buffer instead of String.format,
+ * so writing a row boxes and allocates nothing.
+ * Subclasses decide how rows are put into statements, see OutputFormat
+ * */
+public abstract class TextRowWriter extends RowWriter {
+    private static final char[] DIGITS = "0123456789".toCharArray();
+    private static final long DECIMAL_SCALE = 10_000_000_000L;
+
+    protected final Writer writer;
+    protected final StringBuilder row = new StringBuilder(512);
+    private char[] chars = new char[512];
+    private boolean firstValue;
+
+    protected TextRowWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public RowWriter begin(String table, String columns) throws IOException {
+        beginRow(table, columns);
+        firstValue = true;
+        return this;
+    }
+
+    @Override
+    public RowWriter value(int value) {
+        separate();
+        row.append(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter value(boolean value) {
+        separate();
+        appendBoolean(value);
+        return this;
+    }
+
+    @Override
+    public RowWriter value(double value) {
+        separate();
+        long scaled = Math.round(value * DECIMAL_SCALE);
+        row.append(scaled / DECIMAL_SCALE).append('.');
+        appendPadded(scaled % DECIMAL_SCALE, 10);
+        return this;
+    }
+
+    @Override
+    public RowWriter text(String value) {
+        separate();
+        openText();
+        appendEscaped(value);
+        closeText();
+        return this;
+    }
+
+    @Override
+    public RowWriter text(String first, String second, String third) {
+        separate();
+        openText();
+        appendEscaped(first);
+        row.append(' ');
+        appendEscaped(second);
+        row.append(' ');
+        appendEscaped(third);
+        closeText();
+        return this;
+    }
+
+    /**
+     * Written as yyyy-MM-dd without creating a LocalDate
+     * */
+    @Override
+    public RowWriter date(long epochDay) {
+        separate();
+        openText();
+        appendDate(epochDay);
+        closeText();
+        return this;
+    }
+
+    @Override
+    public void end() throws IOException {
+        endRow();
+        flushRow();
+    }
+
+    /**
+     * SELECT setval(pg_get_serial_sequence(...), lastValue); after the statement of the previous rows
+     * */
+    @Override
+    public void restartSequence(String table, String column, int lastValue) throws IOException {
+        finishStatement();
+        row.append("SELECT setval(pg_get_serial_sequence('").append(table).append("', '").append(column).append("'), ")
+                .append(lastValue).append(");\n");
+        flushRow();
+    }
+
+    @Override
+    public void update(String table, String assignments, String condition) throws IOException {
+        finishStatement();
+        row.append("UPDATE ").append(table).append(" SET ").append(assignments).append(" WHERE ").append(condition).append(";\n");
+        flushRow();
+    }
+
+    @Override
+    public void finish() throws IOException {
+        finishStatement();
+        flushRow();
+    }
+
+    protected abstract void beginRow(String table, String columns) throws IOException;
+
+    protected abstract void endRow();
+
+    protected abstract void finishStatement() throws IOException;
+
+    protected abstract void appendSeparator();
+
+    protected abstract void appendBoolean(boolean value);
+
+    protected abstract void openText();
+
+    protected abstract void closeText();
+
+    /**
+     * Appends a part of a text value, escaped for the format
+     * */
+    protected abstract void appendEscaped(String value);
+
+    /**
+     * Appends value doubling every occurrence of quote, as SQL literals and CSV fields are escaped
+     * */
+    protected void appendDoublingQuotes(String value, char quote) {
+        int start = 0;
+
+        for (int i = value.indexOf(quote); i >= 0; i = value.indexOf(quote, start)) {
+            row.append(value, start, i + 1).append(quote);
+            start = i + 1;
+        }
+
+        row.append(value, start, value.length());
+    }
+
+    private void flushRow() throws IOException {
+        int length = row.length();
+
+        if (length == 0) {
+            return;
+        }
+
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+
+        row.getChars(0, length, chars, 0);
+        writer.write(chars, 0, length);
+        row.setLength(0);
+    }
+
+    private void separate() {
+        if (!firstValue) {
+            appendSeparator();
+        }
+
+        firstValue = false;
+    }
+
+    /**
+     * Civil date from the number of days since 1970-01-01 in the proleptic Gregorian calendar,
+     * the same one LocalDate.ofEpochDay uses
+     * */
+    private void appendDate(long epochDay) {
+        long days = epochDay + 719_468;
+        long era = (days >= 0 ? days : days - 146_096) / 146_097;
+        long dayOfEra = days - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        appendPadded(year, 4);
+        row.append('-');
+        appendPadded(month, 2);
+        row.append('-');
+        appendPadded(day, 2);
+    }
+
+    private void appendPadded(long value, int width) {
+        int start = row.length();
+        row.setLength(start + width);
+
+        for (int i = start + width - 1; i >= start; i--) {
+            row.setCharAt(i, DIGITS[(int) (value % 10)]);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.company;
+
+/**
+ * Draws exactly as the generator did before distributions could be configured, so the default output is kept
+ * */
+public class UniformDistribution extends Distribution {
+    private final boolean dates;
+
+    public UniformDistribution(int from, int to, boolean dates) {
+        super(from, to);
+        this.dates = dates;
+    }
+
+    @Override
+    public int next(Randomizer random) {
+        return dates ? (int) random.getEpochDay(from, to + 1L) : random.getNumber(from, to);
+    }
+}
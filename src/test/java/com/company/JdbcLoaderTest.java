@@ -0,0 +1,94 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Loads a small layout into H2 in the PostgreSQL mode with the tables of ddlCreation.sql, as --init-schema does,
+ * and checks the rows against the layout
+ * */
+class JdbcLoaderTest {
+    private static final double SCALE = 0.2;
+    private static final int CHUNK_ROWS = 250;
+
+    @Test
+    void loadsInBatches() throws IOException, SQLException {
+        try (Connection connection = open("batches")) {
+            Layout layout = new Layout(SCALE, CHUNK_ROWS, new Randomizer(1));
+            JdbcLoader loader = new JdbcLoader(connection, layout, new Randomizer(1), 100, 1_000, false);
+            loader.createTables(Paths.get(Schema.DEFAULT_FILE));
+            loader.load(new Metrics("test"));
+            verify(connection, layout);
+        }
+    }
+
+    @Test
+    void loadsThroughRowWriter() throws IOException, SQLException {
+        try (Connection connection = open("rows")) {
+            Layout layout = new Layout(SCALE, CHUNK_ROWS, new Randomizer(2));
+            new JdbcLoader(connection, layout, new Randomizer(2), 1, 1, true).createTables(Paths.get(Schema.DEFAULT_FILE));
+            // Without PgJDBC the COPY writer falls back to single inserts committed one by one
+            RowWriter rows = JdbcLoader.createWriter(connection, 1, 1, true);
+            new Generator(rows, layout, new Randomizer(2)).generate();
+            rows.finish();
+            verify(connection, layout);
+        }
+    }
+
+    private static Connection open(String name) throws SQLException {
+        return DriverManager.getConnection("jdbc:h2:mem:" + name + ";MODE=PostgreSQL");
+    }
+
+    /**
+     * Every table has the rows of its spec, every reference finds its row and the persons are split into the id ranges of the layout
+     * */
+    private static void verify(Connection connection, Layout layout) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (TableSpec spec : layout.getTableSpecs()) {
+                String table = spec.getName();
+                assertEquals(spec.getRowsCount(), count(statement, "SELECT COUNT(*) FROM " + table), table);
+
+                for (Column column : spec.getTable().getColumns()) {
+                    if (column.getReferencedTable() == null) {
+                        continue;
+                    }
+
+                    String name = table + "." + column.getName();
+                    assertEquals(count(statement, "SELECT COUNT(*) FROM " + table + " WHERE " + name + " IS NOT NULL"),
+                            count(statement, "SELECT COUNT(*) FROM " + table + " JOIN " + column.getReferencedTable()
+                                    + " ON " + name + " = " + column.getReferencedTable() + "." + column.getReferencedColumn()),
+                            name);
+                }
+            }
+
+            assertEquals(layout.getLastPersonId(), count(statement, "SELECT COUNT(*) FROM person"));
+            assertEquals(layout.getUsersCount(), countIds(statement, "_user", 1, layout.getLastUserId()));
+            assertEquals(layout.getMonstersCount(), countIds(statement, "monster", layout.getFirstMonsterId(), layout.getLastMonsterId()));
+            assertEquals(layout.getSoulsCount(), countIds(statement, "soul", layout.getFirstSoulId(), layout.getLastPersonId()));
+        }
+    }
+
+    /**
+     * Rows of the table whose person is in the id range the layout planned for it
+     * */
+    private static long countIds(Statement statement, String table, int from, int to) throws SQLException {
+        return count(statement, "SELECT COUNT(*) FROM " + table + " JOIN person ON " + table + ".person_id = person.id"
+                + " WHERE person.id BETWEEN " + from + " AND " + to);
+    }
+
+    private static long count(Statement statement, String sql) throws SQLException {
+        try (ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.company;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The same seed gives the same bytes whatever the number of threads and the order of the tables and chunks are
+ * */
+class ParallelGeneratorTest {
+    private static final long SEED = 7;
+    private static final double SCALE = 0.3;
+    private static final int CHUNK_ROWS = 300;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void sameFilesWithAnyNumberOfThreads() throws IOException {
+        for (OutputFormat format : OutputFormat.values()) {
+            Map<String, byte[]> one = generate(directory.resolve(format + "-1"), 1, format);
+            Map<String, byte[]> four = generate(directory.resolve(format + "-4"), 4, format);
+            assertTrue(one.size() > Schema.getDefault().getTables().size(), "Some tables take several chunks");
+            assertEquals(one.keySet(), four.keySet());
+
+            for (String file : one.keySet()) {
+                assertArrayEquals(one.get(file), four.get(file), format + " " + file);
+            }
+        }
+    }
+
+    /**
+     * With a statement per row the chunks end where the statements do, so the single file is their concatenation
+     * */
+    @Test
+    void singleFileIsConcatenationOfChunks() throws IOException {
+        Path chunks = directory.resolve("chunks");
+        Map<String, byte[]> files = generate(chunks, 4, OutputFormat.INSERT);
+        ByteArrayOutputStream concatenation = new ByteArrayOutputStream();
+
+        for (String line : Files.readAllLines(chunks.resolve(ScriptOutput.MANIFEST))) {
+            concatenation.write(files.get(line.substring("\\ir ".length())));
+        }
+
+        ScriptOutput output = new ScriptOutput(OutputFormat.INSERT, 1000, Compression.NONE, ScriptOutput.DEFAULT_BUFFER_SIZE, 0);
+        Randomizer randomizer = new Randomizer(SEED);
+
+        try (ChunkedRowWriter rows = output.create(directory, "dmlScript")) {
+            new Generator(rows, new Layout(SCALE, CHUNK_ROWS, randomizer), randomizer).generate();
+            rows.finish();
+        }
+
+        assertArrayEquals(concatenation.toByteArray(), Files.readAllBytes(directory.resolve("dmlScript.sql")));
+    }
+
+    /**
+     * A directory filled table by table and chunk by chunk ends up with the files and the manifest of a full run
+     * */
+    @Test
+    void tablesAddUpToFullRun() throws IOException {
+        Map<String, byte[]> full = generate(directory.resolve("full"), 2, OutputFormat.COPY);
+        Path parts = directory.resolve("parts");
+        Map<String, byte[]> files = generate(parts, 2, OutputFormat.COPY, "soul:1-2", "sequences");
+
+        for (TableSpec spec : new Layout(SCALE, CHUNK_ROWS, new Randomizer(SEED)).getTableSpecs()) {
+            files = spec.getName().equals("soul")
+                    ? generate(parts, 2, OutputFormat.COPY, "soul:0", "soul:3-100")
+                    : generate(parts, 2, OutputFormat.COPY, spec.getName());
+        }
+
+        assertEquals(full.keySet(), files.keySet());
+
+        for (String file : full.keySet()) {
+            assertArrayEquals(full.get(file), files.get(file), file);
+        }
+    }
+
+    /**
+     * The scripts by file name, without the checkpoint, which lists the chunks in the order they were finished
+     * */
+    private static Map<String, byte[]> generate(Path directory, int threads, OutputFormat format, String... tables)
+            throws IOException {
+        Randomizer randomizer = new Randomizer(SEED);
+        ScriptOutput output = new ScriptOutput(format, 100, Compression.NONE, ScriptOutput.DEFAULT_BUFFER_SIZE, 0);
+        new ParallelGenerator(new Layout(SCALE, CHUNK_ROWS, randomizer), randomizer, directory, threads, output,
+                new HashSet<>(Arrays.asList(tables)), false).generate();
+        Map<String, byte[]> files = new TreeMap<>();
+
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) paths::iterator) {
+                if (!file.getFileName().toString().equals(Checkpoint.FILE_NAME)) {
+                    files.put(file.getFileName().toString(), Files.readAllBytes(file));
+                }
+            }
+        }
+
+        return files;
+    }
+}